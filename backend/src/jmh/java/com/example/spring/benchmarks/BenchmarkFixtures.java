@@ -0,0 +1,43 @@
+package com.example.spring.benchmarks;
+
+import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
+import com.example.spring.models.Enterprise;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Employee employee(long id) {
+        return new Employee(id, "John", "Crud", 33, "Backend Developer", "john.crud" + id + "@spring.com");
+    }
+
+    static Department department(long id) {
+        return new Department(id, "IT " + id, "Lorem ipsum dolor sit amet, consectetur adipiscing elit.", "555-555-1234");
+    }
+
+    static Employee employeeWithDepartments(int size) {
+        Employee employee = employee(1L);
+        for (long id = 1; id <= size; id++) {
+            employee.getDepartments().add(department(id));
+        }
+        return employee;
+    }
+
+    static Department departmentWithEmployees(int size) {
+        Department department = department(1L);
+        for (long id = 1; id <= size; id++) {
+            department.getEmployees().add(employee(id));
+        }
+        return department;
+    }
+
+    static Enterprise enterpriseWithDepartments(int size) {
+        Enterprise enterprise = new Enterprise(1L, "Kojima Productions Co.", "Roppongi, Tokyo", "555-888-5432");
+        for (long id = 1; id <= size; id++) {
+            enterprise.getDepartments().add(department(id));
+        }
+        return enterprise;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.spring.benchmarks;
+
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.models.Department;
+import com.example.spring.models.Enterprise;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading the large DTOs in each of the body formats the API negotiates, with mappers
+ * built the way {@code BinaryFormatConfig} builds them. The encoded sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private DepartmentDTO departmentDTO;
+    private EnterpriseDTO enterpriseDTO;
+    private byte[] departmentBytes;
+    private byte[] enterpriseBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        Department department = BenchmarkFixtures.departmentWithEmployees(size);
+        Enterprise enterprise = BenchmarkFixtures.enterpriseWithDepartments(size);
+        departmentDTO = new DepartmentDTO(department, department.getEmployees());
+        enterpriseDTO = new EnterpriseDTO(enterprise, enterprise.getDepartments());
+        departmentBytes = objectMapper.writeValueAsBytes(departmentDTO);
+        enterpriseBytes = objectMapper.writeValueAsBytes(enterpriseDTO);
+        System.out.printf("%n%s size=%d: department %d bytes, enterprise %d bytes%n",
+                format, size, departmentBytes.length, enterpriseBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeDepartment() throws IOException {
+        return objectMapper.writeValueAsBytes(departmentDTO);
+    }
+
+    @Benchmark
+    public DepartmentDTO readDepartment() throws IOException {
+        return objectMapper.readValue(departmentBytes, DepartmentDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeEnterprise() throws IOException {
+        return objectMapper.writeValueAsBytes(enterpriseDTO);
+    }
+
+    @Benchmark
+    public EnterpriseDTO readEnterprise() throws IOException {
+        return objectMapper.readValue(enterpriseBytes, EnterpriseDTO.class);
+    }
+}
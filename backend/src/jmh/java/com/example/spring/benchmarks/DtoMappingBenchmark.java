@@ -0,0 +1,62 @@
+package com.example.spring.benchmarks;
+
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
+import com.example.spring.models.Enterprise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity to DTO constructors for a growing number of children.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private Employee employee;
+    private Department department;
+    private Enterprise enterprise;
+
+    @Setup
+    public void setUp() {
+        employee = BenchmarkFixtures.employeeWithDepartments(size);
+        department = BenchmarkFixtures.departmentWithEmployees(size);
+        enterprise = BenchmarkFixtures.enterpriseWithDepartments(size);
+    }
+
+    @Benchmark
+    public EmployeeDTO employeeWithDepartments() {
+        return new EmployeeDTO(employee, employee.getDepartments());
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentWithEmployees() {
+        return new DepartmentDTO(department, department.getEmployees());
+    }
+
+    @Benchmark
+    public EnterpriseDTO enterpriseWithDepartments() {
+        return new EnterpriseDTO(enterprise, enterprise.getDepartments());
+    }
+}
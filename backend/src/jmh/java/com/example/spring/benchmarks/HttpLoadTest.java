@@ -0,0 +1,99 @@
+package com.example.spring.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for comparing request modes against a running server:
+ * {@code concurrency} clients each send GETs back to back for {@code seconds} and the
+ * throughput and latency percentiles are printed at the end.
+ * <p>
+ * Usage: {@code HttpLoadTest <url> [concurrency] [seconds]}
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        System.out.println(measure(uri, concurrency, seconds));
+    }
+
+    static Result measure(URI uri, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> run(client, request, deadline)));
+            }
+        }
+
+        long errors = 0;
+        List<long[]> results = new ArrayList<>();
+        for (Future<long[]> future : clients) {
+            long[] result = future.get();
+            errors += result[0];
+            results.add(Arrays.copyOfRange(result, 1, result.length));
+        }
+        long[] latencies = results.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        return new Result(latencies.length, errors, latencies.length / (double) seconds,
+                millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99),
+                millis(latencies, 1.0));
+    }
+
+    record Result(long requests, long errors, double throughput, double p50, double p95, double p99, double max) {
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d throughput=%.0f req/s p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                    requests, errors, throughput, p50, p95, p99, max);
+        }
+    }
+
+    private static long[] run(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 1;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors++;
+                    continue;
+                }
+            } catch (Exception e) {
+                errors++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        latencies[0] = errors;
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.spring.benchmarks;
+
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
+import com.example.spring.models.Enterprise;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of the response DTOs, using an ObjectMapper configured the
+ * way Spring MVC configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private EmployeeDTO employeeDTO;
+    private DepartmentDTO departmentDTO;
+    private EnterpriseDTO enterpriseDTO;
+    private CursorPageDTO<EmployeeDTO> employeePage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Employee employee = BenchmarkFixtures.employeeWithDepartments(size);
+        Department department = BenchmarkFixtures.departmentWithEmployees(size);
+        Enterprise enterprise = BenchmarkFixtures.enterpriseWithDepartments(size);
+        employeeDTO = new EmployeeDTO(employee, employee.getDepartments());
+        departmentDTO = new DepartmentDTO(department, department.getEmployees());
+        enterpriseDTO = new EnterpriseDTO(enterprise, enterprise.getDepartments());
+        List<EmployeeDTO> content = department.getEmployees().stream()
+                .map(e -> new EmployeeDTO(e))
+                .collect(Collectors.toList());
+        employeePage = new CursorPageDTO<>(content, CursorPageDTO.encodeCursor((long) size));
+    }
+
+    @Benchmark
+    public byte[] employee() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employeeDTO);
+    }
+
+    @Benchmark
+    public byte[] department() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(departmentDTO);
+    }
+
+    @Benchmark
+    public byte[] enterprise() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enterpriseDTO);
+    }
+
+    @Benchmark
+    public byte[] employeePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employeePage);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.spring.benchmarks;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs {@link HttpLoadTest} against the servlet API and the reactive read API of one server started
+ * with the {@code test,reactive,nocache} profiles, alternating between the two stacks at every
+ * concurrency level so both see the same data and the same warm JVM. The {@code nocache} profile keeps
+ * the servlet side from answering out of its caches, so both stacks run the same queries.
+ * <p>
+ * Usage: {@code ReadStackComparison [servletBase] [reactiveBase] [seconds] [concurrency...]}
+ */
+public class ReadStackComparison {
+
+    private static final List<String> PATHS = List.of("/employees?limit=20", "/departments/1");
+
+    public static void main(String[] args) throws Exception {
+        String servletBase = args.length > 0 ? args[0] : "http://localhost:8080";
+        String reactiveBase = args.length > 1 ? args[1] : "http://localhost:8082";
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int[] concurrencyLevels = args.length > 3
+                ? Arrays.stream(args, 3, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{16, 256, 1024};
+
+        // one short untimed round per stack so neither pays for class loading and JIT in the results
+        for (String base : List.of(servletBase, reactiveBase)) {
+            HttpLoadTest.measure(URI.create(base + PATHS.get(0)), 16, 5);
+        }
+
+        System.out.printf("%-22s %-9s %6s  %s%n", "path", "stack", "conc", "result");
+        for (String path : PATHS) {
+            for (int concurrency : concurrencyLevels) {
+                System.out.printf("%-22s %-9s %6d  %s%n", path, "servlet", concurrency,
+                        HttpLoadTest.measure(URI.create(servletBase + path), concurrency, seconds));
+                System.out.printf("%-22s %-9s %6d  %s%n", path, "reactive", concurrency,
+                        HttpLoadTest.measure(URI.create(reactiveBase + path), concurrency, seconds));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.spring.benchmarks;
+
+import com.example.spring.Application;
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.services.DepartmentService;
+import com.example.spring.services.EmployeeService;
+import com.example.spring.services.EnterpriseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The findAll/findById service paths against the in-memory H2 database, seeded with
+ * {@code size} employees, all of them members of department 1.
+ * Runs with the {@code nocache} profile so every call reaches the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private DepartmentService departmentService;
+    private EnterpriseService enterpriseService;
+    private String lastPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("nocache")
+                .run("--logging.level.root=WARN");
+        employeeService = context.getBean(EmployeeService.class);
+        departmentService = context.getBean(DepartmentService.class);
+        enterpriseService = context.getBean(EnterpriseService.class);
+
+        List<EmployeeDTO> employees = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            employees.add(new EmployeeDTO(BenchmarkFixtures.employee(id)));
+        }
+        employees = employeeService.insertAll(employees);
+
+        DepartmentDTO department = departmentService.findById(1L);
+        department.setEmployees(employees);
+        departmentService.update(1L, department, null);
+
+        EnterpriseDTO enterprise = enterpriseService.findById(1L);
+        enterprise.setDepartments(departmentService.findAll(null, PAGE_SIZE).getContent());
+        enterpriseService.update(1L, enterprise, null);
+
+        Long lastId = employees.get(employees.size() - 1).getId();
+        lastPageCursor = CursorPageDTO.encodeCursor(lastId - PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPageDTO<EmployeeDTO> employeeFindAllFirstPage() {
+        return employeeService.findAll(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageDTO<EmployeeDTO> employeeFindAllLastPage() {
+        return employeeService.findAll(lastPageCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageDTO<DepartmentDTO> departmentFindAllFirstPage() {
+        return departmentService.findAll(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageDTO<EnterpriseDTO> enterpriseFindAllFirstPage() {
+        return enterpriseService.findAll(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public EmployeeDTO employeeFindById() {
+        return employeeService.findById(1L);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentFindById() {
+        return departmentService.findById(1L);
+    }
+
+    @Benchmark
+    public EnterpriseDTO enterpriseFindById() {
+        return enterpriseService.findById(1L);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.spring.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Lets callers exchange request and response bodies as CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}) instead of JSON, by asking for them in {@code Accept} and
+ * {@code Content-Type}. Both carry the same data model as JSON, so the DTOs and merge patches need
+ * nothing of their own. The mappers are built from Boot's builder so they share the application's
+ * Jackson settings, and the converters take the place of the default ones, which keeps JSON first for
+ * requests that accept anything.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.spring.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the read-through caches in front of the department and enterprise lookups.
+ * The cache advice wraps the transactional advice, so evictions run after the write
+ * transaction has committed. A read that started before that commit can still put the old
+ * representation back afterwards, so cached DTOs carry the version tag they were read with
+ * and the controllers reload an entry whose tag no longer matches the database. Set
+ * {@code spring.cache.type=none} (the {@code nocache} profile) to turn caching off.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+}
@@ -0,0 +1,69 @@
+package com.example.spring.config;
+
+import com.example.spring.controllers.ReactiveReadHandler;
+import com.example.spring.repositories.ReactiveReadRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Opt-in mode (the {@code reactive} profile) that serves a read-only WebFlux API on its own Reactor
+ * Netty port, next to the servlet API. It reads the same database through an R2DBC pool sized like the
+ * JDBC one and logs in with the same credentials, so both stacks can be load tested against the same
+ * data at the same time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveServerConfig {
+
+    // the pool is deliberately not a bean: any ConnectionFactory bean makes the DataSource, and with it
+    // JPA, back off
+    @Bean
+    public ReactiveReadRepository reactiveReadRepository(@Value("${app.reactive.r2dbc-url}") String url,
+                                                         @Value("${app.reactive.pool-size:10}") int poolSize,
+                                                         @Value("${spring.datasource.username:}") String username,
+                                                         @Value("${spring.datasource.password:}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        return new ReactiveReadRepository(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                .build()));
+    }
+
+    @Bean
+    public ReactiveReadHandler reactiveReadHandler(ReactiveReadRepository reactiveReadRepository) {
+        return new ReactiveReadHandler(reactiveReadRepository);
+    }
+
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveServer(ReactiveReadHandler reactiveReadHandler, ObjectMapper objectMapper,
+                                           @Value("${app.reactive.port:8082}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(reactiveReadHandler.routes(), strategies));
+
+        return HttpServer.create().port(port).handle(adapter).bindNow();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.spring.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Enables {@code @Retryable} on the service writes. The retry advice wraps the
+ * transactional advice, so every attempt runs in a fresh transaction against freshly
+ * loaded state.
+ */
+@Configuration
+@EnableRetry(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryConfig {
+}
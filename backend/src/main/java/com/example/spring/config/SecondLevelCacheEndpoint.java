@@ -0,0 +1,42 @@
+package com.example.spring.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes the hit ratio of every Hibernate second-level cache region at
+ * {@code /actuator/hibernatecache}. The same counters are published per region as the
+ * {@code hibernate.second.level.cache.requests} meter for dashboards.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class SecondLevelCacheEndpoint {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            long requests = stats.getHitCount() + stats.getMissCount();
+            double hitRatio = requests == 0 ? 0.0 : (double) stats.getHitCount() / requests;
+            regions.put(region, new RegionStatistics(stats.getHitCount(), stats.getMissCount(), stats.getPutCount(), hitRatio));
+        }
+        return regions;
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts, double hitRatio) {
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.spring.controllers;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.services.DepartmentExpansion;
 import com.example.spring.services.DepartmentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -18,15 +24,31 @@ public class DepartmentController {
     private DepartmentService departmentService;
 
     @GetMapping
-    public ResponseEntity<List<DepartmentDTO>> findAll() {
-        List<DepartmentDTO> list = departmentService.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<CursorPageDTO<DepartmentDTO>> findAll(@RequestParam(required = false) String after,
+                                                                @RequestParam(required = false) Integer limit) {
+        CursorPageDTO<DepartmentDTO> page = departmentService.findAll(after, limit);
+        return ResponseEntity.ok().body(page);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<DepartmentDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<DepartmentDTO> findById(@PathVariable Long id, @RequestParam(required = false) String expand,
+                                                  WebRequest request) {
+        boolean withEnterprise = expand != null && DepartmentExpansion.fromValue(expand) == DepartmentExpansion.ENTERPRISE;
+        String versionTag = withEnterprise ? departmentService.findVersionTagWithEnterprise(id) : departmentService.findVersionTag(id);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String eTag = RepresentationTags.of(versionTag, accept);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        if (withEnterprise) {
+            return ResponseEntity.ok().eTag(eTag).body(departmentService.findByIdWithEnterprise(id));
+        }
         DepartmentDTO dto = departmentService.findById(id);
-        return ResponseEntity.ok().body(dto);
+        if (!versionTag.equals(dto.getVersionTag())) {
+            dto = departmentService.refreshById(id);
+        }
+        // tagged with the versions the body was read from, which a concurrent write may have moved past
+        return ResponseEntity.ok().eTag(RepresentationTags.of(dto.getVersionTag(), accept)).body(dto);
     }
 
     @PostMapping
@@ -42,9 +64,20 @@ public class DepartmentController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<DepartmentDTO> findById(@PathVariable Long id, @RequestBody DepartmentDTO dto) {
-        dto = departmentService.update(id, dto);
-        return ResponseEntity.ok().body(dto);
+    public ResponseEntity<DepartmentDTO> findById(@PathVariable Long id, @RequestBody DepartmentDTO dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        dto = departmentService.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(departmentService.findVersionTag(id), accept)).body(dto);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public ResponseEntity<DepartmentDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        DepartmentDTO dto = departmentService.patch(id, patch, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(departmentService.findVersionTag(id), accept)).body(dto);
     }
 
     @DeleteMapping("/{id}")
@@ -52,4 +85,10 @@ public class DepartmentController {
         departmentService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteAll(@RequestParam List<Long> ids) {
+        departmentService.deleteAll(ids);
+        return ResponseEntity.noContent().build();
+    }
 }
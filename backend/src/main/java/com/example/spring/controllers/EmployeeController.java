@@ -1,10 +1,19 @@
 package com.example.spring.controllers;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EmployeeFilterDTO;
 import com.example.spring.services.EmployeeService;
+import com.example.spring.services.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -18,15 +27,40 @@ public class EmployeeController {
     private EmployeeService employeeService;
 
     @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> findAll() {
-        List<EmployeeDTO> list = employeeService.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<CursorPageDTO<EmployeeDTO>> findAll(@RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) Integer limit) {
+        CursorPageDTO<EmployeeDTO> page = employeeService.findAll(after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    @GetMapping(value = "/search")
+    public ResponseEntity<CursorPageDTO<EmployeeDTO>> search(EmployeeFilterDTO filter,
+                                                             @RequestParam(required = false) String sort,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer limit) {
+        CursorPageDTO<EmployeeDTO> page = employeeService.search(filter, sort, after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        StreamingResponseBody body = out -> employeeService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=employees." + exportFormat.name().toLowerCase())
+                .body(body);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<EmployeeDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<EmployeeDTO> findById(@PathVariable Long id, WebRequest request) {
+        String eTag = RepresentationTags.of(employeeService.findVersionTag(id), request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         EmployeeDTO dto = employeeService.findById(id);
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(eTag).body(dto);
     }
 
     @PostMapping
@@ -41,10 +75,27 @@ public class EmployeeController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PostMapping(value = "/batch")
+    public ResponseEntity<List<EmployeeDTO>> insertAll(@RequestBody List<EmployeeDTO> dtos) {
+        List<EmployeeDTO> list = employeeService.insertAll(dtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(list);
+    }
+
     @PutMapping(value = "/{id}")
-    public ResponseEntity<EmployeeDTO> findById(@PathVariable Long id, @RequestBody EmployeeDTO dto) {
-        dto = employeeService.update(id, dto);
-        return ResponseEntity.ok().body(dto);
+    public ResponseEntity<EmployeeDTO> findById(@PathVariable Long id, @RequestBody EmployeeDTO dto,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        dto = employeeService.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(employeeService.findVersionTag(id), accept)).body(dto);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public ResponseEntity<EmployeeDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        EmployeeDTO dto = employeeService.patch(id, patch, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(employeeService.findVersionTag(id), accept)).body(dto);
     }
 
     @DeleteMapping("/{id}")
@@ -52,4 +103,10 @@ public class EmployeeController {
         employeeService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteAll(@RequestParam List<Long> ids) {
+        employeeService.deleteAll(ids);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,10 +1,16 @@
 package com.example.spring.controllers;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EnterpriseDTO;
 import com.example.spring.services.EnterpriseService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -18,15 +24,32 @@ public class EnterpriseController {
     private EnterpriseService enterpriseService;
 
     @GetMapping
-    public ResponseEntity<List<EnterpriseDTO>> findAll() {
-        List<EnterpriseDTO> list = enterpriseService.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<CursorPageDTO<EnterpriseDTO>> findAll(@RequestParam(required = false) String after,
+                                                                @RequestParam(required = false) Integer limit) {
+        CursorPageDTO<EnterpriseDTO> page = enterpriseService.findAll(after, limit);
+        return ResponseEntity.ok().body(page);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<EnterpriseDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<EnterpriseDTO> findById(@PathVariable Long id, WebRequest request) {
+        String versionTag = enterpriseService.findVersionTag(id);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (request.checkNotModified(RepresentationTags.of(versionTag, accept))) {
+            return null;
+        }
         EnterpriseDTO dto = enterpriseService.findById(id);
-        return ResponseEntity.ok().body(dto);
+        if (!versionTag.equals(dto.getVersionTag())) {
+            dto = enterpriseService.refreshById(id);
+        }
+        // tagged with the versions the body was read from, which a concurrent write may have moved past
+        return ResponseEntity.ok().eTag(RepresentationTags.of(dto.getVersionTag(), accept)).body(dto);
+    }
+
+    @GetMapping(value = "/{id}/tree")
+    public ResponseEntity<StreamingResponseBody> findTree(@PathVariable Long id) {
+        EnterpriseDTO enterprise = enterpriseService.findTreeRoot(id);
+        StreamingResponseBody body = out -> enterpriseService.writeTree(enterprise, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping
@@ -42,9 +65,20 @@ public class EnterpriseController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<EnterpriseDTO> findById(@PathVariable Long id, @RequestBody EnterpriseDTO dto) {
-        dto = enterpriseService.update(id, dto);
-        return ResponseEntity.ok().body(dto);
+    public ResponseEntity<EnterpriseDTO> findById(@PathVariable Long id, @RequestBody EnterpriseDTO dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        dto = enterpriseService.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(enterpriseService.findVersionTag(id), accept)).body(dto);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public ResponseEntity<EnterpriseDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        EnterpriseDTO dto = enterpriseService.patch(id, patch, ifMatch);
+        return ResponseEntity.ok().eTag(RepresentationTags.of(enterpriseService.findVersionTag(id), accept)).body(dto);
     }
 
     @DeleteMapping("/{id}")
@@ -52,4 +86,10 @@ public class EnterpriseController {
         enterpriseService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteAll(@RequestParam List<Long> ids) {
+        enterpriseService.deleteAll(ids);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,113 @@
+package com.example.spring.controllers;
+
+import com.example.spring.controllers.exceptions.StandardError;
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.repositories.ReactiveReadRepository;
+import com.example.spring.services.exceptions.InvalidCursorException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Read-only endpoints of the reactive stack. Lists page with the same opaque {@code after} cursor as the
+ * servlet API: a JSON request gets the same {@link CursorPageDTO} body, and when {@code application/x-ndjson}
+ * is accepted the page is written one object per line with the next cursor in the {@value #NEXT_CURSOR}
+ * header. Single resources include the same related collection as the servlet API.
+ */
+public class ReactiveReadHandler {
+
+    static final String NEXT_CURSOR = "Next-Cursor";
+
+    private final ReactiveReadRepository repository;
+
+    public ReactiveReadHandler(ReactiveReadRepository repository) {
+        this.repository = repository;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/employees", request -> list(request, EmployeeDTO.class, repository::findEmployees, EmployeeDTO::getId))
+                .GET("/employees/{id}", request -> one(request, id -> repository.findEmployee(id)
+                        .zipWith(repository.findDepartmentsByEmployeeId(id).collectList(), (employee, departments) -> {
+                            employee.setDepartments(departments);
+                            return employee;
+                        })))
+                .GET("/departments", request -> list(request, DepartmentDTO.class, repository::findDepartments, DepartmentDTO::getId))
+                .GET("/departments/{id}", request -> one(request, id -> repository.findDepartment(id)
+                        .zipWith(repository.findEmployeesByDepartmentId(id).collectList(), (department, employees) -> {
+                            department.setEmployees(employees);
+                            return department;
+                        })))
+                .GET("/enterprises", request -> list(request, EnterpriseDTO.class, repository::findEnterprises, EnterpriseDTO::getId))
+                .GET("/enterprises/{id}", request -> one(request, id -> repository.findEnterprise(id)
+                        .zipWith(repository.findDepartmentsByEnterpriseId(id).collectList(), (enterprise, departments) -> {
+                            enterprise.setDepartments(departments);
+                            return enterprise;
+                        })))
+                .onError(InvalidCursorException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, "Invalid cursor", e.getMessage(), request))
+                .onError(NumberFormatException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, "Invalid parameter", e.getMessage(), request))
+                .build();
+    }
+
+    // deferred so that a malformed parameter surfaces as an error signal for onError. One row past the
+    // page tells whether there is a next one; the page (at most CursorPageDTO.MAX_LIMIT rows) is collected
+    // so the cursor can go out in the header ahead of an NDJSON body
+    private <T> Mono<ServerResponse> list(ServerRequest request, Class<T> type, Page<T> page, Function<T, Long> idExtractor) {
+        return Mono.defer(() -> {
+            long afterId = CursorPageDTO.decodeCursor(request.queryParam("after").orElse(null));
+            Integer limit = request.queryParam("limit").map(Integer::valueOf).orElse(null);
+            int size = CursorPageDTO.pageSize(limit);
+            boolean ndjson = request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+
+            return page.find(afterId, size + 1).collectList().flatMap(rows -> {
+                boolean hasNext = rows.size() > size;
+                CursorPageDTO<T> cursorPage = CursorPageDTO.of(hasNext ? rows.subList(0, size) : rows, hasNext, idExtractor);
+                if (!ndjson) {
+                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(cursorPage);
+                }
+                ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON);
+                if (cursorPage.getNextCursor() != null) {
+                    response.header(NEXT_CURSOR, cursorPage.getNextCursor());
+                }
+                return response.body(Flux.fromIterable(cursorPage.getContent()), type);
+            });
+        });
+    }
+
+    private <T> Mono<ServerResponse> one(ServerRequest request, Function<Long, Mono<T>> finder) {
+        return Mono.defer(() -> {
+            Long id = Long.valueOf(request.pathVariable("id"));
+
+            return finder.apply(id)
+                    .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto))
+                    .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, "Resource not found", "Entity with id " + id + " not found", request)));
+        });
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String error, String message, ServerRequest request) {
+        StandardError err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError(error);
+        err.setMessage(message);
+        err.setPath(request.path());
+
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(err);
+    }
+
+    @FunctionalInterface
+    private interface Page<T> {
+        Flux<T> find(long afterId, int limit);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.spring.controllers;
+
+import com.example.spring.dto.AgeBandDTO;
+import com.example.spring.dto.HeadcountDTO;
+import com.example.spring.services.HeadcountGrouping;
+import com.example.spring.services.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @GetMapping(value = "/headcount")
+    public ResponseEntity<List<HeadcountDTO>> headcount(@RequestParam(defaultValue = "enterprise") String groupBy) {
+        List<HeadcountDTO> rows = reportService.headcount(HeadcountGrouping.fromValue(groupBy));
+        return ResponseEntity.ok().body(rows);
+    }
+
+    @GetMapping(value = "/age-bands")
+    public ResponseEntity<List<AgeBandDTO>> ageBands(@RequestParam(required = false) Integer width) {
+        List<AgeBandDTO> bands = reportService.ageBands(width);
+        return ResponseEntity.ok().body(bands);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.spring.controllers;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A strong ETag identifies one exact representation, so the JSON, CBOR and Smile bodies built from the
+ * same versions need different tags. The version tag is used as is for JSON and gets a {@code -cbor} or
+ * {@code -smile} suffix for the binary formats, picked from {@code Accept} the same way the message
+ * converters pick the body format (JSON first when several are acceptable). {@code VaryByAcceptFilter}
+ * tells shared caches that the body depends on {@code Accept}.
+ */
+final class RepresentationTags {
+
+    private static final Map<MediaType, String> BINARY_SUFFIXES = Map.of(
+            MediaType.APPLICATION_CBOR, "cbor",
+            MediaType.parseMediaType("application/x-jackson-smile"), "smile");
+
+    private RepresentationTags() {
+    }
+
+    static String of(String versionTag, String accept) {
+        String suffix = binarySuffix(accept);
+        if (suffix == null) {
+            return versionTag;
+        }
+
+        return versionTag.substring(0, versionTag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    private static String binarySuffix(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0.0) {
+                continue;
+            }
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+                return null;
+            }
+            for (Map.Entry<MediaType, String> binary : BINARY_SUFFIXES.entrySet()) {
+                if (binary.getKey().isCompatibleWith(mediaType)) {
+                    return binary.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+}
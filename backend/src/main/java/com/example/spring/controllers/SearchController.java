@@ -0,0 +1,24 @@
+package com.example.spring.controllers;
+
+import com.example.spring.dto.SearchHitDTO;
+import com.example.spring.services.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/search")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) Integer limit) {
+        List<SearchHitDTO> hits = searchService.search(q, limit);
+        return ResponseEntity.ok().body(hits);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.spring.dto;
+
+import java.io.Serializable;
+
+/**
+ * Number of employees aged {@code minAge} to {@code maxAge} inclusive. Employees without an age are
+ * reported in a band whose bounds are both {@code null}.
+ */
+public class AgeBandDTO implements Serializable {
+
+    private Integer minAge;
+    private Integer maxAge;
+    private Long headcount;
+
+    public AgeBandDTO() {
+    }
+
+    public AgeBandDTO(Integer minAge, Integer maxAge, Long headcount) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.headcount = headcount;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Long getHeadcount() {
+        return headcount;
+    }
+
+    public void setHeadcount(Long headcount) {
+        this.headcount = headcount;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.spring.dto;
+
+import com.example.spring.services.exceptions.InvalidCursorException;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated listing. Pages are ordered by id and the
+ * {@code nextCursor} is an opaque token encoding the last id of the page, or
+ * {@code null} when there are no more rows. No total count is computed, so the
+ * cost of a page does not depend on how deep the client has paged.
+ */
+public class CursorPageDTO<T> implements Serializable {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> content = new ArrayList<>();
+    private String nextCursor;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> CursorPageDTO<T> of(List<T> content, boolean hasNext, Function<T, Long> idExtractor) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            nextCursor = encodeCursor(idExtractor.apply(content.get(content.size() - 1)));
+        }
+        return new CursorPageDTO<>(content, nextCursor);
+    }
+
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static String encodeCursor(Long id) {
+        return encodeToken(id.toString());
+    }
+
+    public static String encodeToken(String token) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decodeToken(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(decodeToken(cursor));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.example.spring.dto;
 import com.example.spring.models.Department;
 import com.example.spring.models.Employee;
 import com.example.spring.models.Enterprise;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hibernate.Hibernate;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -16,7 +19,11 @@ public class DepartmentDTO implements Serializable {
     private String description;
     private String phone;
     private List<EmployeeDTO> employees = new ArrayList<>();
-    private Enterprise enterprise = new Enterprise();
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private EnterpriseSummaryDTO enterprise;
+    // tag of the versions this representation was read from; sent as the ETag, never in the body
+    @JsonIgnore
+    private String versionTag;
 
     public DepartmentDTO() {
     }
@@ -38,6 +45,11 @@ public class DepartmentDTO implements Serializable {
     public DepartmentDTO(Department department, Set<Employee> employees) {
         this(department);
         employees.forEach(e -> this.employees.add(new EmployeeDTO(e)));
+        // only summarised when the caller already fetched it; never loaded just to fill this in
+        Enterprise enterprise = department.getEnterprise();
+        if (enterprise != null && Hibernate.isInitialized(enterprise)) {
+            this.enterprise = new EnterpriseSummaryDTO(enterprise);
+        }
     }
 
     public Long getId() {
@@ -80,11 +92,19 @@ public class DepartmentDTO implements Serializable {
         this.employees = employees;
     }
 
-    public Enterprise getEnterprise() {
+    public EnterpriseSummaryDTO getEnterprise() {
         return enterprise;
     }
 
-    public void setEnterprise(Enterprise enterprise) {
+    public void setEnterprise(EnterpriseSummaryDTO enterprise) {
         this.enterprise = enterprise;
     }
+
+    public String getVersionTag() {
+        return versionTag;
+    }
+
+    public void setVersionTag(String versionTag) {
+        this.versionTag = versionTag;
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.spring.dto;
+
+import java.io.Serializable;
+
+/**
+ * Optional filters of {@code GET /employees/search}. Every non-blank field narrows the result and the
+ * filters are combined with AND; {@code lastName} is matched as a case-sensitive prefix so it can use
+ * the index on {@code last_name}.
+ */
+public class EmployeeFilterDTO implements Serializable {
+
+    private String lastName;
+    private String position;
+    private String email;
+    private Integer minAge;
+    private Integer maxAge;
+
+    public EmployeeFilterDTO() {
+    }
+
+    public EmployeeFilterDTO(String lastName, String position, String email, Integer minAge, Integer maxAge) {
+        this.lastName = lastName;
+        this.position = position;
+        this.email = email;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.spring.dto;
 
 import com.example.spring.models.Department;
 import com.example.spring.models.Enterprise;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -15,6 +16,9 @@ public class EnterpriseDTO implements Serializable {
     private String address;
     private String phone;
     private List<DepartmentDTO> departments = new ArrayList<>();
+    // tag of the versions this representation was read from; sent as the ETag, never in the body
+    @JsonIgnore
+    private String versionTag;
 
     public EnterpriseDTO() {
     }
@@ -77,4 +81,12 @@ public class EnterpriseDTO implements Serializable {
     public void setDepartments(List<DepartmentDTO> departments) {
         this.departments = departments;
     }
+
+    public String getVersionTag() {
+        return versionTag;
+    }
+
+    public void setVersionTag(String versionTag) {
+        this.versionTag = versionTag;
+    }
 }
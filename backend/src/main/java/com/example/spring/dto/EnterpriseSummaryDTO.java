@@ -0,0 +1,40 @@
+package com.example.spring.dto;
+
+import com.example.spring.models.Enterprise;
+
+import java.io.Serializable;
+
+public class EnterpriseSummaryDTO implements Serializable {
+
+    private Long id;
+    private String name;
+
+    public EnterpriseSummaryDTO() {
+    }
+
+    public EnterpriseSummaryDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public EnterpriseSummaryDTO(Enterprise enterprise) {
+        this.id = enterprise.getId();
+        this.name = enterprise.getName();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
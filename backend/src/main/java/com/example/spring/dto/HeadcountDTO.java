@@ -0,0 +1,52 @@
+package com.example.spring.dto;
+
+import java.io.Serializable;
+
+/**
+ * One row of a headcount report. {@code id} is the id of the enterprise or department the row
+ * counts, and {@code null} when grouping by a plain column such as position.
+ */
+public class HeadcountDTO implements Serializable {
+
+    private Long id;
+    private String name;
+    private Long headcount;
+
+    public HeadcountDTO() {
+    }
+
+    public HeadcountDTO(String name, Long headcount) {
+        this.name = name;
+        this.headcount = headcount;
+    }
+
+    public HeadcountDTO(Long id, String name, Long headcount) {
+        this.id = id;
+        this.name = name;
+        this.headcount = headcount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getHeadcount() {
+        return headcount;
+    }
+
+    public void setHeadcount(Long headcount) {
+        this.headcount = headcount;
+    }
+}
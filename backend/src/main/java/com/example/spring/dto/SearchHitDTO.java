@@ -0,0 +1,53 @@
+package com.example.spring.dto;
+
+import java.io.Serializable;
+
+public class SearchHitDTO implements Serializable {
+
+    private String type;
+    private Long id;
+    private String name;
+    private Double score;
+
+    public SearchHitDTO() {
+    }
+
+    public SearchHitDTO(String type, Long id, String name, Double score) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.score = score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.spring.listeners;
+
+import com.example.spring.models.Department;
+import com.example.spring.models.Enterprise;
+import com.example.spring.services.SearchService;
+import com.example.spring.services.TextIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps the search index in step with entity writes by handing each written department or enterprise
+ * to {@link SearchService}. The document is tokenized when Hibernate flushes the entity and published
+ * after commit. Bulk deletes skip entity callbacks, so the services remove those ids themselves.
+ */
+public class SearchIndexListener {
+
+    // resolved lazily: the listener is created while the EntityManagerFactory is still being built,
+    // and JPA test slices run without the search service
+    @Autowired
+    private ObjectProvider<SearchService> searchService;
+
+    @PostPersist
+    @PostUpdate
+    public void index(Object entity) {
+        if (entity instanceof Department department) {
+            searchService.ifAvailable(service -> service.indexAfterCommit(TextIndex.DEPARTMENT,
+                    department.getId(), department.getName(), department.getDescription()));
+        } else if (entity instanceof Enterprise enterprise) {
+            searchService.ifAvailable(service -> service.indexAfterCommit(TextIndex.ENTERPRISE,
+                    enterprise.getId(), enterprise.getName(), enterprise.getAddress()));
+        }
+    }
+
+    @PostRemove
+    public void remove(Object entity) {
+        if (entity instanceof Department department) {
+            searchService.ifAvailable(service -> service.removeAfterCommit(TextIndex.DEPARTMENT, department.getId()));
+        } else if (entity instanceof Enterprise enterprise) {
+            searchService.ifAvailable(service -> service.removeAfterCommit(TextIndex.ENTERPRISE, enterprise.getId()));
+        }
+    }
+}
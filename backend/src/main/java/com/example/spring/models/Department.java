@@ -1,6 +1,10 @@
 package com.example.spring.models;
 
+import com.example.spring.listeners.SearchIndexListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.time.Instant;
@@ -8,11 +12,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "department")
+@DynamicUpdate
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "departments")
 public class Department implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_seq")
+    @SequenceGenerator(name = "departments_seq", sequenceName = "departments_seq", allocationSize = 50)
     private Long id;
     private String name;
     @Column(columnDefinition = "TEXT")
@@ -23,17 +31,20 @@ public class Department implements Serializable {
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
+    @Version
+    private Long version;
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "department-employees")
     @JoinTable(name = "departments_employees",
             joinColumns = @JoinColumn(name = "department_id"),
             inverseJoinColumns = @JoinColumn(name = "employee_id"))
     Set<Employee> employees = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinTable(name = "enterprises_departments",
-            joinColumns = @JoinColumn(name = "enterprise_id"),
-            inverseJoinColumns = @JoinColumn(name = "department_id"))
-    Enterprise enterprise = new Enterprise();
+            joinColumns = @JoinColumn(name = "department_id"),
+            inverseJoinColumns = @JoinColumn(name = "enterprise_id"))
+    Enterprise enterprise;
 
     public Department() {
     }
@@ -85,6 +96,10 @@ public class Department implements Serializable {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Employee> getEmployees() {
         return employees;
     }
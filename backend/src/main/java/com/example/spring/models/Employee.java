@@ -1,17 +1,30 @@
 package com.example.spring.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "employees")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
+@DynamicUpdate
+// the search sorts nulls as the greatest value (ASC NULLS LAST, DESC NULLS FIRST), which is the order of
+// these ascending indexes scanned forwards or backwards
+@Table(name = "employees", indexes = {
+        @Index(name = "ux_employees_email", columnList = "email", unique = true),
+        @Index(name = "ix_employees_last_name", columnList = "lastName ASC, id ASC"),
+        @Index(name = "ix_employees_position", columnList = "position ASC, id ASC"),
+        @Index(name = "ix_employees_age", columnList = "age ASC, id ASC")
+})
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
@@ -23,6 +36,9 @@ public class Employee {
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
+    @Version
+    private Long version;
+    // not cached: Hibernate only invalidates the owning side (Department.employees) of a many-to-many
     @ManyToMany(mappedBy = "employees")
     Set<Department> departments = new HashSet<>();
 
@@ -94,6 +110,10 @@ public class Employee {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Department> getDepartments() {
         return departments;
     }
@@ -1,6 +1,10 @@
 package com.example.spring.models;
 
+import com.example.spring.listeners.SearchIndexListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.time.Instant;
@@ -8,11 +12,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enterprise")
+@DynamicUpdate
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "enterprises")
 public class Enterprise implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enterprises_seq")
+    @SequenceGenerator(name = "enterprises_seq", sequenceName = "enterprises_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String address;
@@ -22,7 +30,10 @@ public class Enterprise implements Serializable {
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
+    @Version
+    private Long version;
     @OneToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enterprise-departments")
     @JoinTable(name = "enterprises_departments",
             joinColumns = @JoinColumn(name = "enterprise_id"),
             inverseJoinColumns = @JoinColumn(name = "department_id"))
@@ -78,6 +89,10 @@ public class Enterprise implements Serializable {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Department> getDepartments() {
         return departments;
     }
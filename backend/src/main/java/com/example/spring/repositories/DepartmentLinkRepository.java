@@ -0,0 +1,14 @@
+package com.example.spring.repositories;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface DepartmentLinkRepository {
+
+    /**
+     * Inserts a {@code departments_employees} row for every department id listed under each employee id,
+     * many rows per statement, without loading either side of the association. Only the cached
+     * department member collections are invalidated.
+     */
+    int insertDepartmentLinks(Map<Long, ? extends Collection<Long>> departmentIdsByEmployeeId);
+}
@@ -0,0 +1,45 @@
+package com.example.spring.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class DepartmentLinkRepositoryImpl implements DepartmentLinkRepository {
+
+    // keeps each statement well below the bind parameter limits of the supported databases
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertDepartmentLinks(Map<Long, ? extends Collection<Long>> departmentIdsByEmployeeId) {
+        List<Long[]> rows = new ArrayList<>();
+        departmentIdsByEmployeeId.forEach((employeeId, departmentIds) ->
+                departmentIds.forEach(departmentId -> rows.add(new Long[]{departmentId, employeeId})));
+
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Long[]> statementRows = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            StringJoiner values = new StringJoiner(", ", "INSERT INTO departments_employees (department_id, employee_id) VALUES ", "");
+            for (int i = 0; i < statementRows.size(); i++) {
+                values.add("(?" + (2 * i + 1) + ", ?" + (2 * i + 2) + ")");
+            }
+            NativeQuery<?> query = entityManager.createNativeQuery(values.toString()).unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace("departments_employees");
+            for (int i = 0; i < statementRows.size(); i++) {
+                query.setParameter(2 * i + 1, statementRows.get(i)[0]);
+                query.setParameter(2 * i + 2, statementRows.get(i)[1]);
+            }
+            inserted += query.executeUpdate();
+        }
+
+        return inserted;
+    }
+}
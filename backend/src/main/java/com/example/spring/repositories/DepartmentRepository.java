@@ -1,9 +1,57 @@
 package com.example.spring.repositories;
 
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.HeadcountDTO;
 import com.example.spring.models.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    @Query("SELECT new com.example.spring.dto.DepartmentDTO(d.id, d.name, d.description, d.phone) "
+            + "FROM Department d WHERE d.id > :id ORDER BY d.id")
+    Slice<DepartmentDTO> findDTOByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employees"})
+    Optional<Department> findWithEmployeesById(Long id);
+
+    @EntityGraph(attributePaths = {"employees", "enterprise"})
+    Optional<Department> findWithEmployeesAndEnterpriseById(Long id);
+
+    @Query("SELECT d.version, e.id, e.version "
+            + "FROM Department d LEFT JOIN d.employees e WHERE d.id = :id ORDER BY e.id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    @Query("SELECT e.id, e.version FROM Department d JOIN d.enterprise e WHERE d.id = :id")
+    List<Object[]> findEnterpriseVersionById(@Param("id") Long id);
+
+    @Query("SELECT d.id, d.name, d.description FROM Department d")
+    List<Object[]> findSearchableText();
+
+    @Query("SELECT new com.example.spring.dto.HeadcountDTO(d.id, d.name, COUNT(e.id)) "
+            + "FROM Department d LEFT JOIN d.employees e GROUP BY d.id, d.name ORDER BY d.id")
+    List<HeadcountDTO> countEmployeesByDepartment();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enterprises_departments"))
+    @Query(value = "DELETE FROM enterprises_departments WHERE department_id IN (:ids)", nativeQuery = true)
+    int deleteEnterpriseLinks(@Param("ids") Collection<Long> departmentIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Department d WHERE d.id IN (:ids)")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,9 +1,61 @@
 package com.example.spring.repositories;
 
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.HeadcountDTO;
 import com.example.spring.models.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeSearchRepository,
+        DepartmentLinkRepository {
+
+    @Query("SELECT new com.example.spring.dto.EmployeeDTO(e.id, e.firstName, e.lastName, e.age, e.position, e.email) "
+            + "FROM Employee e WHERE e.id > :id ORDER BY e.id")
+    Slice<EmployeeDTO> findDTOByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Employee e ORDER BY e.id")
+    Stream<Employee> streamAllOrderById();
+
+    @Query("SELECT e.version, d.id, d.version "
+            + "FROM Employee e LEFT JOIN e.departments d WHERE e.id = :id ORDER BY d.id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.spring.dto.HeadcountDTO(e.position, COUNT(e)) "
+            + "FROM Employee e GROUP BY e.position ORDER BY e.position")
+    List<HeadcountDTO> countEmployeesByPosition();
+
+    @Query("SELECT e.age, COUNT(e) FROM Employee e GROUP BY e.age ORDER BY e.age")
+    List<Object[]> countEmployeesByAge();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "departments_employees"))
+    @Query(value = "DELETE FROM departments_employees "
+            + "WHERE employee_id = :employeeId AND department_id IN (:departmentIds)", nativeQuery = true)
+    int deleteDepartmentLinks(@Param("employeeId") Long employeeId, @Param("departmentIds") Collection<Long> departmentIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "departments_employees"))
+    @Query(value = "DELETE FROM departments_employees WHERE employee_id IN (:ids)", nativeQuery = true)
+    int deleteDepartmentLinks(@Param("ids") Collection<Long> employeeIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN (:ids)")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,15 @@
+package com.example.spring.repositories;
+
+import com.example.spring.models.Employee;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface EmployeeSearchRepository {
+
+    /**
+     * Returns the first {@code size} employees matching {@code spec} in {@code sort} order. One extra row
+     * is fetched to tell whether there is a next page, so no count query is issued.
+     */
+    Slice<Employee> findSlice(Specification<Employee> spec, Sort sort, int size);
+}
@@ -0,0 +1,64 @@
+package com.example.spring.repositories;
+
+import com.example.spring.models.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.sqm.NullPrecedence;
+import org.hibernate.query.sqm.SortOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EmployeeSearchRepositoryImpl implements EmployeeSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Employee> findSlice(Specification<Employee> spec, Sort sort, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, (HibernateCriteriaBuilder) cb));
+
+        List<Employee> content = new ArrayList<>(entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList());
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    // QueryUtils.toOrders rejects null handling, which Hibernate's criteria builder can express
+    private static List<Order> toOrders(Sort sort, Root<Employee> root, HibernateCriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            NullPrecedence nulls = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> NullPrecedence.FIRST;
+                case NULLS_LAST -> NullPrecedence.LAST;
+                case NATIVE -> NullPrecedence.NONE;
+            };
+            orders.add(cb.sort((JpaExpression<?>) root.get(order.getProperty()),
+                    order.isAscending() ? SortOrder.ASCENDING : SortOrder.DESCENDING, nulls));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.spring.repositories;
+
+import com.example.spring.dto.EmployeeFilterDTO;
+import com.example.spring.models.Employee;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Building blocks of {@code GET /employees/search}. Each filter compares a bare column against a
+ * parameter (no functions applied to the column) so it stays sargable for the indexes declared on
+ * {@link Employee}.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> matching(EmployeeFilterDTO filter) {
+        Specification<Employee> spec = Specification.where(null);
+        if (hasText(filter.getLastName())) {
+            spec = spec.and(lastNameStartsWith(filter.getLastName()));
+        }
+        if (hasText(filter.getPosition())) {
+            spec = spec.and(positionEquals(filter.getPosition()));
+        }
+        if (hasText(filter.getEmail())) {
+            spec = spec.and(emailEquals(filter.getEmail()));
+        }
+        if (filter.getMinAge() != null) {
+            spec = spec.and(ageAtLeast(filter.getMinAge()));
+        }
+        if (filter.getMaxAge() != null) {
+            spec = spec.and(ageAtMost(filter.getMaxAge()));
+        }
+        return spec;
+    }
+
+    public static Specification<Employee> lastNameStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("lastName"), pattern, '\\');
+    }
+
+    public static Specification<Employee> positionEquals(String position) {
+        return (root, query, cb) -> cb.equal(root.get("position"), position);
+    }
+
+    public static Specification<Employee> emailEquals(String email) {
+        return (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+
+    public static Specification<Employee> ageAtLeast(int age) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("age"), age);
+    }
+
+    public static Specification<Employee> ageAtMost(int age) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("age"), age);
+    }
+
+    public static Specification<Employee> idAfter(Long id, boolean ascending) {
+        return (root, query, cb) -> ascending ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset predicate for rows ordered by {@code (attribute, id)} in the given direction with nulls
+     * sorted as the greatest value (last when ascending, first when descending): the rows strictly after
+     * {@code (value, id)}. A {@code null} value means the previous page ended inside the block of nulls.
+     */
+    public static <T extends Comparable<? super T>> Specification<Employee> seek(String attribute, T value,
+                                                                                Long id, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(attribute);
+            Path<Long> keyId = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(keyId, id) : cb.lessThan(keyId, id);
+            if (value == null) {
+                Predicate nullAfter = cb.and(cb.isNull(key), idAfter);
+                return ascending ? nullAfter : cb.or(nullAfter, cb.isNotNull(key));
+            }
+            Predicate keyAfter = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate sameKeyAfter = cb.and(cb.equal(key, value), idAfter);
+            return ascending ? cb.or(keyAfter, sameKeyAfter, cb.isNull(key)) : cb.or(keyAfter, sameKeyAfter);
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -1,9 +1,69 @@
 package com.example.spring.repositories;
 
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.dto.HeadcountDTO;
 import com.example.spring.models.Enterprise;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface EnterpriseRepository extends JpaRepository<Enterprise, Long> {
+
+    @Query("SELECT new com.example.spring.dto.EnterpriseDTO(e.id, e.name, e.address, e.phone) "
+            + "FROM Enterprise e WHERE e.id > :id ORDER BY e.id")
+    Slice<EnterpriseDTO> findDTOByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.example.spring.dto.EnterpriseDTO(e.id, e.name, e.address, e.phone) "
+            + "FROM Enterprise e WHERE e.id = :id")
+    Optional<EnterpriseDTO> findDTOById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.spring.dto.DepartmentDTO(d.id, d.name, d.description, d.phone) "
+            + "FROM Enterprise e JOIN e.departments d WHERE e.id = :id ORDER BY d.id")
+    List<DepartmentDTO> findDepartmentDTOsByEnterpriseId(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.id, emp.id, emp.firstName, emp.lastName, emp.age, emp.position, emp.email "
+            + "FROM Enterprise e JOIN e.departments d JOIN d.employees emp WHERE e.id = :id ORDER BY d.id, emp.id")
+    Stream<Object[]> streamEmployeeRowsByEnterpriseId(@Param("id") Long id);
+
+    // read-through only: each fetched department references, through its own enterprise association,
+    // the enterprise that is still being initialized by this query, which Hibernate cannot disassemble
+    // into a second-level cache entry
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @EntityGraph(attributePaths = {"departments"})
+    Optional<Enterprise> findWithDepartmentsById(Long id);
+
+    @Query("SELECT e.version, d.id, d.version "
+            + "FROM Enterprise e LEFT JOIN e.departments d WHERE e.id = :id ORDER BY d.id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    @Query("SELECT e.id, e.name, e.address FROM Enterprise e")
+    List<Object[]> findSearchableText();
+
+    @Query("SELECT new com.example.spring.dto.HeadcountDTO(e.id, e.name, COUNT(DISTINCT emp.id)) "
+            + "FROM Enterprise e LEFT JOIN e.departments d LEFT JOIN d.employees emp "
+            + "GROUP BY e.id, e.name ORDER BY e.id")
+    List<HeadcountDTO> countEmployeesByEnterprise();
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Enterprise e WHERE e.id IN (:ids)")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
 }
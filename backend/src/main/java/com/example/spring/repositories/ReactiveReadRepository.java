@@ -0,0 +1,120 @@
+package com.example.spring.repositories;
+
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EnterpriseDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads over the tables the JPA entities map, for the reactive read API. Rows are mapped
+ * straight to DTOs and emitted as the driver produces them, so a slow subscriber holds back the query
+ * instead of having the whole result buffered for it. Closing the repository disposes its pool.
+ */
+public class ReactiveReadRepository implements AutoCloseable {
+
+    private static final String EMPLOYEE_COLUMNS = "e.id, e.first_name, e.last_name, e.age, e.position, e.email";
+    private static final String DEPARTMENT_COLUMNS = "d.id, d.name, d.description, d.phone";
+    private static final String ENTERPRISE_COLUMNS = "e.id, e.name, e.address, e.phone";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    public Flux<EmployeeDTO> findEmployees(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees e WHERE e.id > :afterId ORDER BY e.id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveReadRepository::employee)
+                .all();
+    }
+
+    public Mono<EmployeeDTO> findEmployee(long id) {
+        return databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees e WHERE e.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::employee)
+                .one();
+    }
+
+    public Flux<DepartmentDTO> findDepartmentsByEmployeeId(long id) {
+        return databaseClient.sql("SELECT " + DEPARTMENT_COLUMNS + " FROM departments d "
+                        + "JOIN departments_employees de ON de.department_id = d.id WHERE de.employee_id = :id ORDER BY d.id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::department)
+                .all();
+    }
+
+    public Flux<DepartmentDTO> findDepartments(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + DEPARTMENT_COLUMNS + " FROM departments d WHERE d.id > :afterId ORDER BY d.id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveReadRepository::department)
+                .all();
+    }
+
+    public Mono<DepartmentDTO> findDepartment(long id) {
+        return databaseClient.sql("SELECT " + DEPARTMENT_COLUMNS + " FROM departments d WHERE d.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::department)
+                .one();
+    }
+
+    public Flux<EmployeeDTO> findEmployeesByDepartmentId(long id) {
+        return databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees e "
+                        + "JOIN departments_employees de ON de.employee_id = e.id WHERE de.department_id = :id ORDER BY e.id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::employee)
+                .all();
+    }
+
+    public Flux<EnterpriseDTO> findEnterprises(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + ENTERPRISE_COLUMNS + " FROM enterprises e WHERE e.id > :afterId ORDER BY e.id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveReadRepository::enterprise)
+                .all();
+    }
+
+    public Mono<EnterpriseDTO> findEnterprise(long id) {
+        return databaseClient.sql("SELECT " + ENTERPRISE_COLUMNS + " FROM enterprises e WHERE e.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::enterprise)
+                .one();
+    }
+
+    public Flux<DepartmentDTO> findDepartmentsByEnterpriseId(long id) {
+        return databaseClient.sql("SELECT " + DEPARTMENT_COLUMNS + " FROM departments d "
+                        + "JOIN enterprises_departments ed ON ed.department_id = d.id WHERE ed.enterprise_id = :id ORDER BY d.id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::department)
+                .all();
+    }
+
+    private static EmployeeDTO employee(Readable row) {
+        return new EmployeeDTO(row.get("id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("age", Integer.class),
+                row.get("position", String.class), row.get("email", String.class));
+    }
+
+    private static DepartmentDTO department(Readable row) {
+        return new DepartmentDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("phone", String.class));
+    }
+
+    private static EnterpriseDTO enterprise(Readable row) {
+        return new EnterpriseDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("address", String.class), row.get("phone", String.class));
+    }
+}
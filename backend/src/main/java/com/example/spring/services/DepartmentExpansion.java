@@ -0,0 +1,17 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.UnsupportedExpansionException;
+
+public enum DepartmentExpansion {
+
+    ENTERPRISE;
+
+    public static DepartmentExpansion fromValue(String value) {
+        for (DepartmentExpansion expansion : values()) {
+            if (expansion.name().equalsIgnoreCase(value)) {
+                return expansion;
+            }
+        }
+        throw new UnsupportedExpansionException("Expansion " + value + " not supported");
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.dto.EmployeeDTO;
 import com.example.spring.models.Department;
@@ -7,18 +8,30 @@ import com.example.spring.models.Employee;
 import com.example.spring.repositories.DepartmentRepository;
 import com.example.spring.repositories.EmployeeRepository;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidIdsException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class DepartmentService {
 
     @Autowired
@@ -27,23 +40,79 @@ public class DepartmentService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TextIndex textIndex;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     @Transactional(readOnly = true)
-    public List<DepartmentDTO> findAll() {
-        List<Department> list = departmentRepository.findAll();
+    public CursorPageDTO<DepartmentDTO> findAll(String after, Integer limit) {
+        Long afterId = CursorPageDTO.decodeCursor(after);
+        int size = CursorPageDTO.pageSize(limit);
 
-        return list.stream().map(d -> new DepartmentDTO(d)).collect(Collectors.toList());
+        return queryResultCache.get(QueryResultCache.DEPARTMENTS, "findAll", List.of(afterId, size), () -> {
+            Slice<DepartmentDTO> slice = departmentRepository.findDTOByIdGreaterThan(afterId, PageRequest.of(0, size));
+            return CursorPageDTO.of(slice.getContent(), slice.hasNext(), DepartmentDTO::getId);
+        });
     }
 
+    @Cacheable(value = "departments", key = "#id")
     @Transactional(readOnly = true)
     public DepartmentDTO findById(Long id) {
-        Optional<Department> obj = departmentRepository.findById(id);
+        return load(id);
+    }
+
+    /**
+     * Reads the department again and replaces its cached entry. Used when the cached entry's version tag
+     * no longer matches the database: a read that started before a write committed can put its result
+     * back after the write's eviction.
+     */
+    @CachePut(value = "departments", key = "#id")
+    @Transactional(readOnly = true)
+    public DepartmentDTO refreshById(Long id) {
+        return load(id);
+    }
+
+    // not cached: the entry would also have to go whenever the department changes enterprise, which
+    // is written through Enterprise.departments
+    @Transactional(readOnly = true)
+    public DepartmentDTO findByIdWithEnterprise(Long id) {
+        Optional<Department> obj = departmentRepository.findWithEmployeesAndEnterpriseById(id);
         Department department = obj.orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
 
         return new DepartmentDTO(department, department.getEmployees());
     }
 
+    private DepartmentDTO load(Long id) {
+        Optional<Department> obj = departmentRepository.findWithEmployeesById(id);
+        Department department = obj.orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
+
+        DepartmentDTO dto = new DepartmentDTO(department, department.getEmployees());
+        dto.setVersionTag(VersionTags.of(department.getVersion(), department.getEmployees(), Employee::getId, Employee::getVersion, id));
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public String findVersionTag(Long id) {
+        return VersionTags.of(departmentRepository.findVersionsById(id), id);
+    }
+
+    // moving the department or renaming its enterprise bumps the enterprise's version, which the
+    // expanded representation has to be tagged with as well
+    @Transactional(readOnly = true)
+    public String findVersionTagWithEnterprise(Long id) {
+        List<Object[]> rows = new ArrayList<>(departmentRepository.findVersionsById(id));
+        for (Object[] enterprise : departmentRepository.findEnterpriseVersionById(id)) {
+            rows.add(new Object[]{null, "enterprise-" + enterprise[0], enterprise[1]});
+        }
+
+        return VersionTags.of(rows, id);
+    }
+
     @Transactional
     public DepartmentDTO insert(DepartmentDTO dto) {
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
         Department department = new Department();
         copyDtoToEntity(dto, department);
         department = departmentRepository.save(department);
@@ -51,10 +120,16 @@ public class DepartmentService {
         return new DepartmentDTO(department);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "departments", key = "#id"),
+            @CacheEvict(value = "enterprises", allEntries = true)
+    })
+    @RetryOnConflict
     @Transactional
-    public DepartmentDTO update(Long id, DepartmentDTO dto) {
+    public DepartmentDTO update(Long id, DepartmentDTO dto, String ifMatch) {
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
         try {
-            Department department = departmentRepository.getReferenceById(id);
+            Department department = getForWrite(id, ifMatch);
             copyDtoToEntity(dto, department);
             department = departmentRepository.save(department);
 
@@ -64,24 +139,88 @@ public class DepartmentService {
         }
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "departments", key = "#id"),
+            @CacheEvict(value = "enterprises", allEntries = true)
+    })
+    @RetryOnConflict
+    @Transactional
+    public DepartmentDTO patch(Long id, JsonNode patch, String ifMatch) {
+        MergePatch.requireObject(patch);
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
+        try {
+            Department department = getForWrite(id, ifMatch);
+            MergePatch.text(patch, "name", department::setName);
+            MergePatch.text(patch, "description", department::setDescription);
+            MergePatch.text(patch, "phone", department::setPhone);
+            Optional<List<Long>> employeeIds = MergePatch.ids(patch, "employees");
+            if (employeeIds.isPresent()) {
+                EntityReferences.replaceAll(department.getEmployees(), employeeIds.get(), employeeRepository, Employee::getId, "Employees");
+            }
+            department = departmentRepository.save(department);
+
+            return new DepartmentDTO(department);
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = "departments", key = "#id"),
+            @CacheEvict(value = "enterprises", allEntries = true)
+    })
+    @Transactional
     public void delete(Long id) {
+        if (deleteByIds(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = "departments", allEntries = true),
+            @CacheEvict(value = "enterprises", allEntries = true)
+    })
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new InvalidIdsException("At least one id is required");
+        }
+        if (deleteByIds(ids) == 0) {
+            throw new ResourceNotFoundException("Entities with ids " + ids + " not found");
+        }
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
         try {
-            departmentRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
-            departmentRepository.deleteById(id);
+            // the bulk delete clears the join tables of collections this entity owns; the
+            // enterprise membership is owned by Enterprise.departments
+            departmentRepository.deleteEnterpriseLinks(ids);
+            int deleted = departmentRepository.bulkDeleteByIds(ids);
+            // bulk deletes bypass the entity callbacks that maintain the search index
+            AfterCommit.run(() -> textIndex.removeAll(TextIndex.DEPARTMENT, ids));
+            return deleted;
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Data integrity violation");
         }
     }
 
+    private Department getForWrite(Long id, String ifMatch) {
+        Long expectedVersion = ifMatch == null
+                ? null : VersionTags.requireMatch(departmentRepository.findVersionsById(id), id, ifMatch);
+        Department department = departmentRepository.getReferenceById(id);
+        if (expectedVersion != null && !expectedVersion.equals(department.getVersion())) {
+            throw new PreconditionFailedException("Entity with id " + id + " has been modified");
+        }
+
+        return department;
+    }
+
     private void copyDtoToEntity(DepartmentDTO dto, Department department) {
         department.setName(dto.getName());
         department.setDescription(dto.getDescription());
         department.setPhone(dto.getPhone());
-        department.getEmployees().clear();
-        for (EmployeeDTO empDto : dto.getEmployees()) {
-            Employee employee = employeeRepository.getReferenceById(empDto.getId());
-            department.getEmployees().add(employee);
-        }
+        List<Long> employeeIds = dto.getEmployees().stream().map(EmployeeDTO::getId).collect(Collectors.toList());
+        EntityReferences.replaceAll(department.getEmployees(), employeeIds, employeeRepository, Employee::getId, "Employees");
     }
 }
@@ -0,0 +1,93 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.models.Employee;
+import com.example.spring.repositories.EmployeeSpecifications;
+import com.example.spring.services.exceptions.InvalidCursorException;
+import com.example.spring.services.exceptions.InvalidSearchException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Sort order of {@code GET /employees/search}, written as {@code field[,asc|desc]}. Every order is
+ * tie-broken by id so it is total, and the cursor carries the sort key of the last row next to its
+ * id ({@code id[:value]}) so the next page seeks past it instead of skipping an offset.
+ */
+final class EmployeeSearchOrder {
+
+    private enum Key {
+        ID("id"), LAST_NAME("lastName"), AGE("age");
+
+        private final String attribute;
+
+        Key(String attribute) {
+            this.attribute = attribute;
+        }
+    }
+
+    private final Key key;
+    private final boolean ascending;
+
+    private EmployeeSearchOrder(Key key, boolean ascending) {
+        this.key = key;
+        this.ascending = ascending;
+    }
+
+    static EmployeeSearchOrder parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return new EmployeeSearchOrder(Key.ID, true);
+        }
+        String[] parts = sort.split(",", -1);
+        Key key = null;
+        for (Key candidate : Key.values()) {
+            if (candidate.attribute.equals(parts[0].trim())) {
+                key = candidate;
+            }
+        }
+        String direction = parts.length > 1 ? parts[1].trim() : "asc";
+        if (key == null || parts.length > 2
+                || !(direction.equalsIgnoreCase("asc") || direction.equalsIgnoreCase("desc"))) {
+            throw new InvalidSearchException("Unsupported sort " + sort);
+        }
+        return new EmployeeSearchOrder(key, direction.equalsIgnoreCase("asc"));
+    }
+
+    // nulls sort as the greatest value, which ascending indexes serve in both directions
+    Sort toSort() {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if (key == Key.ID) {
+            return Sort.by(direction, "id");
+        }
+        Sort.Order order = new Sort.Order(direction, key.attribute);
+        return Sort.by(ascending ? order.nullsLast() : order.nullsFirst(), new Sort.Order(direction, "id"));
+    }
+
+    Specification<Employee> after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String token = CursorPageDTO.decodeToken(cursor);
+        int separator = token.indexOf(':');
+        String value = separator < 0 ? null : token.substring(separator + 1);
+        try {
+            Long id = Long.valueOf(separator < 0 ? token : token.substring(0, separator));
+            return switch (key) {
+                case ID -> EmployeeSpecifications.idAfter(id, ascending);
+                case LAST_NAME -> EmployeeSpecifications.seek(key.attribute, value, id, ascending);
+                case AGE -> EmployeeSpecifications.seek(key.attribute,
+                        value == null ? null : Integer.valueOf(value), id, ascending);
+            };
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    String cursorOf(Employee last) {
+        Object value = switch (key) {
+            case ID -> null;
+            case LAST_NAME -> last.getLastName();
+            case AGE -> last.getAge();
+        };
+        return CursorPageDTO.encodeToken(value == null ? last.getId().toString() : last.getId() + ":" + value);
+    }
+}
@@ -1,36 +1,93 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EmployeeFilterDTO;
 import com.example.spring.models.Department;
 import com.example.spring.models.Employee;
 import com.example.spring.repositories.DepartmentRepository;
 import com.example.spring.repositories.EmployeeRepository;
+import com.example.spring.repositories.EmployeeSpecifications;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidIdsException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class EmployeeService {
 
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
     @Autowired
     private EmployeeRepository employeeRepository;
     @Autowired
     private DepartmentRepository departmentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private QueryResultCache queryResultCache;
 
     @Transactional(readOnly = true)
-    public List<EmployeeDTO> findAll() {
-        List<Employee> list = employeeRepository.findAll();
+    public CursorPageDTO<EmployeeDTO> findAll(String after, Integer limit) {
+        Long afterId = CursorPageDTO.decodeCursor(after);
+        int size = CursorPageDTO.pageSize(limit);
 
-        return list.stream().map(e -> new EmployeeDTO(e)).collect(Collectors.toList());
+        return queryResultCache.get(QueryResultCache.EMPLOYEES, "findAll", List.of(afterId, size), () -> {
+            Slice<EmployeeDTO> slice = employeeRepository.findDTOByIdGreaterThan(afterId, PageRequest.of(0, size));
+            return CursorPageDTO.of(slice.getContent(), slice.hasNext(), EmployeeDTO::getId);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EmployeeDTO> search(EmployeeFilterDTO filter, String sort, String after, Integer limit) {
+        EmployeeSearchOrder order = EmployeeSearchOrder.parse(sort);
+        Specification<Employee> spec = EmployeeSpecifications.matching(filter).and(order.after(after));
+        Slice<Employee> slice = employeeRepository.findSlice(spec, order.toSort(), CursorPageDTO.pageSize(limit));
+
+        List<Employee> employees = slice.getContent();
+        String nextCursor = slice.hasNext() ? order.cursorOf(employees.get(employees.size() - 1)) : null;
+        return new CursorPageDTO<>(employees.stream().map(EmployeeDTO::new).toList(), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -41,20 +98,94 @@ public class EmployeeService {
         return new EmployeeDTO(employee, employee.getDepartments());
     }
 
+    @Transactional(readOnly = true)
+    public String findVersionTag(Long id) {
+        return VersionTags.of(employeeRepository.findVersionsById(id), id);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // keeps a full export from pushing every row through the bounded employee region and evicting
+        // its hot entries; set on the session because a cache mode query hint is only in effect while
+        // the stream is opened, not while its rows are read
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try (Stream<Employee> stream = employeeRepository.streamAllOrderById()) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(stream.iterator(), writer);
+            } else {
+                writeNdjson(stream.iterator(), writer);
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        writer.flush();
+    }
+
+    @CacheEvict(value = "departments", allEntries = true)
     @Transactional
     public EmployeeDTO insert(EmployeeDTO dto) {
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
         Employee employee = new Employee();
         copyDtoToEntity(dto, employee);
         employee = employeeRepository.save(employee);
+        replaceDepartments(employee, departmentIdsOf(dto));
 
         return new EmployeeDTO(employee);
     }
 
+    /**
+     * Persists the employees in chunks of {@value #BATCH_CHUNK_SIZE}, each in its own transaction,
+     * so inserts are sent as JDBC batches and the persistence context never grows past one chunk.
+     * Chunks committed before a failure stay committed.
+     */
+    @CacheEvict(value = "departments", allEntries = true)
+    public List<EmployeeDTO> insertAll(List<EmployeeDTO> dtos) {
+        List<EmployeeDTO> result = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += BATCH_CHUNK_SIZE) {
+            List<EmployeeDTO> chunk = dtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, dtos.size()));
+            result.addAll(transactionTemplate.execute(status -> insertChunk(chunk)));
+        }
+
+        return result;
+    }
+
+    @CacheEvict(value = "departments", allEntries = true)
+    @RetryOnConflict
     @Transactional
-    public EmployeeDTO update(Long id, EmployeeDTO dto) {
+    public EmployeeDTO update(Long id, EmployeeDTO dto, String ifMatch) {
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
         try {
-            Employee employee = employeeRepository.getReferenceById(id);
+            Employee employee = getForWrite(id, ifMatch);
             copyDtoToEntity(dto, employee);
+            replaceDepartments(employee, departmentIdsOf(dto));
+            employee = employeeRepository.save(employee);
+
+            return new EmployeeDTO(employee);
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @CacheEvict(value = "departments", allEntries = true)
+    @RetryOnConflict
+    @Transactional
+    public EmployeeDTO patch(Long id, JsonNode patch, String ifMatch) {
+        MergePatch.requireObject(patch);
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
+        try {
+            Employee employee = getForWrite(id, ifMatch);
+            MergePatch.text(patch, "firstName", employee::setFirstName);
+            MergePatch.text(patch, "lastName", employee::setLastName);
+            MergePatch.integer(patch, "age", employee::setAge);
+            MergePatch.text(patch, "position", employee::setPosition);
+            MergePatch.text(patch, "email", employee::setEmail);
+            Optional<List<Long>> departmentIds = MergePatch.ids(patch, "departments");
+            if (departmentIds.isPresent()) {
+                replaceDepartments(employee, departmentIds.get());
+            }
             employee = employeeRepository.save(employee);
 
             return new EmployeeDTO(employee);
@@ -63,26 +194,153 @@ public class EmployeeService {
         }
     }
 
+    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
     public void delete(Long id) {
+        if (deleteByIds(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new InvalidIdsException("At least one id is required");
+        }
+        if (deleteByIds(ids) == 0) {
+            throw new ResourceNotFoundException("Entities with ids " + ids + " not found");
+        }
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
         try {
-            employeeRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
-            employeeRepository.deleteById(id);
+            // department membership is owned by Department.employees, so the bulk delete
+            // leaves its join table rows behind
+            employeeRepository.deleteDepartmentLinks(ids);
+            return employeeRepository.bulkDeleteByIds(ids);
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Data integrity violation");
         }
     }
 
+    private List<EmployeeDTO> insertChunk(List<EmployeeDTO> dtos) {
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
+        // the departments of the whole chunk are looked up with one IN query and linked with bulk inserts
+        Set<Long> departmentIds = dtos.stream().flatMap(dto -> departmentIdsOf(dto).stream()).collect(Collectors.toSet());
+        Map<Long, Department> departments = EntityReferences.findAllOrThrow(departmentRepository, departmentIds, Department::getId, "Departments")
+                .stream().collect(Collectors.toMap(Department::getId, Function.identity()));
+        List<Employee> employees = new ArrayList<>(dtos.size());
+        for (EmployeeDTO dto : dtos) {
+            Employee employee = new Employee();
+            copyDtoToEntity(dto, employee);
+            departmentIdsOf(dto).forEach(departmentId -> employee.getDepartments().add(departments.get(departmentId)));
+            employees.add(employee);
+        }
+        employees = employeeRepository.saveAll(employees);
+
+        Map<Long, Set<Long>> links = new LinkedHashMap<>();
+        for (Employee employee : employees) {
+            if (!employee.getDepartments().isEmpty()) {
+                links.put(employee.getId(), employee.getDepartments().stream().map(Department::getId).collect(Collectors.toSet()));
+            }
+        }
+        if (!links.isEmpty()) {
+            employeeRepository.flush();
+            employeeRepository.insertDepartmentLinks(links);
+        }
+
+        return employees.stream().map(e -> new EmployeeDTO(e)).collect(Collectors.toList());
+    }
+
+    private void writeNdjson(Iterator<Employee> employees, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        while (employees.hasNext()) {
+            Employee employee = employees.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", employee.getId());
+            generator.writeStringField("firstName", employee.getFirstName());
+            generator.writeStringField("lastName", employee.getLastName());
+            generator.writeObjectField("age", employee.getAge());
+            generator.writeStringField("position", employee.getPosition());
+            generator.writeStringField("email", employee.getEmail());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            entityManager.detach(employee);
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<Employee> employees, Writer writer) throws IOException {
+        writer.write("id,firstName,lastName,age,position,email\n");
+        while (employees.hasNext()) {
+            Employee employee = employees.next();
+            writer.write(String.valueOf(employee.getId()));
+            writer.write(',');
+            writer.write(csvValue(employee.getFirstName()));
+            writer.write(',');
+            writer.write(csvValue(employee.getLastName()));
+            writer.write(',');
+            writer.write(employee.getAge() == null ? "" : employee.getAge().toString());
+            writer.write(',');
+            writer.write(csvValue(employee.getPosition()));
+            writer.write(',');
+            writer.write(csvValue(employee.getEmail()));
+            writer.write('\n');
+            entityManager.detach(employee);
+        }
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private Employee getForWrite(Long id, String ifMatch) {
+        Long expectedVersion = ifMatch == null
+                ? null : VersionTags.requireMatch(employeeRepository.findVersionsById(id), id, ifMatch);
+        Employee employee = employeeRepository.getReferenceById(id);
+        if (expectedVersion != null && !expectedVersion.equals(employee.getVersion())) {
+            throw new PreconditionFailedException("Entity with id " + id + " has been modified");
+        }
+
+        return employee;
+    }
+
     private void copyDtoToEntity(EmployeeDTO dto, Employee employee) {
         employee.setFirstName(dto.getFirstName());
         employee.setLastName(dto.getLastName());
         employee.setAge(dto.getAge());
         employee.setPosition(dto.getPosition());
         employee.setEmail(dto.getEmail());
-        employee.getDepartments().clear();
-        for (DepartmentDTO dptDto : dto.getDepartments()) {
-            Department department = departmentRepository.getReferenceById(dptDto.getId());
-            employee.getDepartments().add(department);
+    }
+
+    private static List<Long> departmentIdsOf(EmployeeDTO dto) {
+        return dto.getDepartments().stream().map(DepartmentDTO::getId).collect(Collectors.toList());
+    }
+
+    // Employee.departments is the mappedBy side, so Hibernate never writes it. The changed join rows are
+    // written directly instead of through Department.employees, which would load every member of each
+    // affected department; the employee's own side is kept in step so the session matches the table
+    private void replaceDepartments(Employee employee, List<Long> departmentIds) {
+        Set<Long> previousIds = employee.getDepartments().stream().map(Department::getId).collect(Collectors.toSet());
+        Set<Long> changedIds = EntityReferences.replaceAll(employee.getDepartments(), departmentIds, departmentRepository, Department::getId, "Departments");
+        Set<Long> removedIds = changedIds.stream().filter(previousIds::contains).collect(Collectors.toSet());
+        Set<Long> addedIds = changedIds.stream().filter(id -> !previousIds.contains(id)).collect(Collectors.toSet());
+        if (!removedIds.isEmpty()) {
+            employeeRepository.deleteDepartmentLinks(employee.getId(), removedIds);
+        }
+        if (!addedIds.isEmpty()) {
+            // the join rows reference the employee row, which a new employee does not have before the flush
+            employeeRepository.flush();
+            employeeRepository.insertDepartmentLinks(Map.of(employee.getId(), addedIds));
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.dto.EnterpriseDTO;
 import com.example.spring.models.Department;
@@ -7,43 +8,155 @@ import com.example.spring.models.Enterprise;
 import com.example.spring.repositories.DepartmentRepository;
 import com.example.spring.repositories.EnterpriseRepository;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidIdsException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class EnterpriseService {
 
     @Autowired
     private EnterpriseRepository enterpriseRepository;
     @Autowired
+    private TextIndex textIndex;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+    @Autowired
     private DepartmentRepository departmentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Transactional(readOnly = true)
-    public List<EnterpriseDTO> findAll() {
-        List<Enterprise> list = enterpriseRepository.findAll();
+    public CursorPageDTO<EnterpriseDTO> findAll(String after, Integer limit) {
+        Long afterId = CursorPageDTO.decodeCursor(after);
+        int size = CursorPageDTO.pageSize(limit);
 
-        return list.stream().map(e -> new EnterpriseDTO(e)).collect(Collectors.toList());
+        return queryResultCache.get(QueryResultCache.ENTERPRISES, "findAll", List.of(afterId, size), () -> {
+            Slice<EnterpriseDTO> slice = enterpriseRepository.findDTOByIdGreaterThan(afterId, PageRequest.of(0, size));
+            return CursorPageDTO.of(slice.getContent(), slice.hasNext(), EnterpriseDTO::getId);
+        });
     }
 
+    @Cacheable(value = "enterprises", key = "#id")
     @Transactional(readOnly = true)
     public EnterpriseDTO findById(Long id) {
-        Optional<Enterprise> obj = enterpriseRepository.findById(id);
+        return load(id);
+    }
+
+    /**
+     * Reads the enterprise again and replaces its cached entry. Used when the cached entry's version tag
+     * no longer matches the database: a read that started before a write committed can put its result
+     * back after the write's eviction.
+     */
+    @CachePut(value = "enterprises", key = "#id")
+    @Transactional(readOnly = true)
+    public EnterpriseDTO refreshById(Long id) {
+        return load(id);
+    }
+
+    @Transactional(readOnly = true)
+    public EnterpriseDTO findTreeRoot(Long id) {
+        return enterpriseRepository.findDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
+    }
+
+    /**
+     * Writes {@code enterprise} with its departments and their employees as nested JSON. Departments
+     * and employee rows are each read with one query, both ordered by department id, and merged while
+     * writing: only the department list is held in memory and employees go straight from the JDBC
+     * cursor to the output.
+     */
+    @Transactional(readOnly = true)
+    public void writeTree(EnterpriseDTO enterprise, OutputStream out) throws IOException {
+        List<DepartmentDTO> departments = enterpriseRepository.findDepartmentDTOsByEnterpriseId(enterprise.getId());
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        try (Stream<Object[]> stream = enterpriseRepository.streamEmployeeRowsByEnterpriseId(enterprise.getId())) {
+            Iterator<Object[]> rows = stream.iterator();
+            Object[] row = rows.hasNext() ? rows.next() : null;
+
+            generator.writeStartObject();
+            generator.writeNumberField("id", enterprise.getId());
+            generator.writeStringField("name", enterprise.getName());
+            generator.writeStringField("address", enterprise.getAddress());
+            generator.writeStringField("phone", enterprise.getPhone());
+            generator.writeArrayFieldStart("departments");
+            for (DepartmentDTO department : departments) {
+                // skip memberships of departments linked after the department list was read
+                while (row != null && (Long) row[0] < department.getId()) {
+                    row = rows.hasNext() ? rows.next() : null;
+                }
+                generator.writeStartObject();
+                generator.writeNumberField("id", department.getId());
+                generator.writeStringField("name", department.getName());
+                generator.writeStringField("description", department.getDescription());
+                generator.writeStringField("phone", department.getPhone());
+                generator.writeArrayFieldStart("employees");
+                while (row != null && department.getId().equals(row[0])) {
+                    generator.writeStartObject();
+                    generator.writeObjectField("id", row[1]);
+                    generator.writeObjectField("firstName", row[2]);
+                    generator.writeObjectField("lastName", row[3]);
+                    generator.writeObjectField("age", row[4]);
+                    generator.writeObjectField("position", row[5]);
+                    generator.writeObjectField("email", row[6]);
+                    generator.writeEndObject();
+                    row = rows.hasNext() ? rows.next() : null;
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    private EnterpriseDTO load(Long id) {
+        Optional<Enterprise> obj = enterpriseRepository.findWithDepartmentsById(id);
         Enterprise enterprise = obj.orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
 
-        return new EnterpriseDTO(enterprise, enterprise.getDepartments());
+        EnterpriseDTO dto = new EnterpriseDTO(enterprise, enterprise.getDepartments());
+        dto.setVersionTag(VersionTags.of(enterprise.getVersion(), enterprise.getDepartments(), Department::getId, Department::getVersion, id));
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public String findVersionTag(Long id) {
+        return VersionTags.of(enterpriseRepository.findVersionsById(id), id);
     }
 
     @Transactional
     public EnterpriseDTO insert(EnterpriseDTO dto) {
+        queryResultCache.invalidate(QueryResultCache.ENTERPRISES);
         Enterprise enterprise = new Enterprise();
         copyDtoToEntity(dto, enterprise);
         enterprise = enterpriseRepository.save(enterprise);
@@ -51,10 +164,13 @@ public class EnterpriseService {
         return new EnterpriseDTO(enterprise);
     }
 
+    @CacheEvict(value = "enterprises", key = "#id")
+    @RetryOnConflict
     @Transactional
-    public EnterpriseDTO update(Long id, EnterpriseDTO dto) {
+    public EnterpriseDTO update(Long id, EnterpriseDTO dto, String ifMatch) {
+        queryResultCache.invalidate(QueryResultCache.ENTERPRISES);
         try {
-            Enterprise enterprise = enterpriseRepository.getReferenceById(id);
+            Enterprise enterprise = getForWrite(id, ifMatch);
             copyDtoToEntity(dto, enterprise);
             enterprise = enterpriseRepository.save(enterprise);
 
@@ -64,24 +180,85 @@ public class EnterpriseService {
         }
     }
 
+    @CacheEvict(value = "enterprises", key = "#id")
+    @RetryOnConflict
+    @Transactional
+    public EnterpriseDTO patch(Long id, JsonNode patch, String ifMatch) {
+        MergePatch.requireObject(patch);
+        queryResultCache.invalidate(QueryResultCache.ENTERPRISES);
+        try {
+            Enterprise enterprise = getForWrite(id, ifMatch);
+            MergePatch.text(patch, "name", enterprise::setName);
+            MergePatch.text(patch, "address", enterprise::setAddress);
+            MergePatch.text(patch, "phone", enterprise::setPhone);
+            Optional<List<Long>> departmentIds = MergePatch.ids(patch, "departments");
+            if (departmentIds.isPresent()) {
+                evictDepartments(EntityReferences.replaceAll(enterprise.getDepartments(), departmentIds.get(), departmentRepository, Department::getId, "Departments"));
+            }
+            enterprise = enterpriseRepository.save(enterprise);
+
+            return new EnterpriseDTO(enterprise);
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @CacheEvict(value = "enterprises", key = "#id")
+    @Transactional
     public void delete(Long id) {
+        if (deleteByIds(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+    }
+
+    @CacheEvict(value = "enterprises", allEntries = true)
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new InvalidIdsException("At least one id is required");
+        }
+        if (deleteByIds(ids) == 0) {
+            throw new ResourceNotFoundException("Entities with ids " + ids + " not found");
+        }
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        queryResultCache.invalidate(QueryResultCache.ENTERPRISES);
         try {
-            enterpriseRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Entity with id " + id + " not found"));
-            enterpriseRepository.deleteById(id);
+            int deleted = enterpriseRepository.bulkDeleteByIds(ids);
+            // bulk deletes bypass the entity callbacks that maintain the search index
+            AfterCommit.run(() -> textIndex.removeAll(TextIndex.ENTERPRISE, ids));
+            return deleted;
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Data integrity violation");
         }
     }
 
+    private Enterprise getForWrite(Long id, String ifMatch) {
+        Long expectedVersion = ifMatch == null
+                ? null : VersionTags.requireMatch(enterpriseRepository.findVersionsById(id), id, ifMatch);
+        Enterprise enterprise = enterpriseRepository.getReferenceById(id);
+        if (expectedVersion != null && !expectedVersion.equals(enterprise.getVersion())) {
+            throw new PreconditionFailedException("Entity with id " + id + " has been modified");
+        }
+
+        return enterprise;
+    }
+
     private void copyDtoToEntity(EnterpriseDTO dto, Enterprise enterprise) {
         enterprise.setName(dto.getName());
         enterprise.setAddress(dto.getAddress());
         enterprise.setPhone(dto.getPhone());
-        enterprise.getDepartments().clear();
-        for (DepartmentDTO dptDto : dto.getDepartments()) {
-            Department department = departmentRepository.getReferenceById(dptDto.getId());
-            enterprise.getDepartments().add(department);
+        List<Long> departmentIds = dto.getDepartments().stream().map(DepartmentDTO::getId).collect(Collectors.toList());
+        evictDepartments(EntityReferences.replaceAll(enterprise.getDepartments(), departmentIds, departmentRepository, Department::getId, "Departments"));
+    }
+
+    // Department.enterprise maps the same join table as Enterprise.departments, so Hibernate does not
+    // know that a membership change makes the second-level cache entries of those departments stale
+    private void evictDepartments(Collection<Long> departmentIds) {
+        if (!departmentIds.isEmpty()) {
+            AfterCommit.run(() -> departmentIds.forEach(
+                    departmentId -> entityManagerFactory.getCache().evict(Department.class, departmentId)));
         }
     }
 }
@@ -0,0 +1,56 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.ResourceNotFoundException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves the ids referenced by a request body with a single {@code IN} query,
+ * failing with the full list of unknown ids instead of creating proxies that
+ * blow up later at flush time.
+ */
+final class EntityReferences {
+
+    private EntityReferences() {
+    }
+
+    static <T> List<T> findAllOrThrow(JpaRepository<T, Long> repository, Collection<Long> ids,
+                                      Function<T, Long> idExtractor, String entityName) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> unknownIds = new LinkedHashSet<>(ids);
+        List<T> entities = repository.findAllById(unknownIds.stream().filter(Objects::nonNull).toList());
+        entities.forEach(entity -> unknownIds.remove(idExtractor.apply(entity)));
+        if (!unknownIds.isEmpty()) {
+            throw new ResourceNotFoundException(entityName + " with ids " + unknownIds + " not found");
+        }
+
+        return entities;
+    }
+
+    /**
+     * Makes {@code members} hold exactly the entities with the given ids by removing and
+     * adding only the difference, so Hibernate writes one join table row per changed member
+     * instead of deleting and re-inserting the whole collection. Only added ids are looked up.
+     * Returns the ids of the members that were removed or added.
+     */
+    static <T> Set<Long> replaceAll(Set<T> members, Collection<Long> ids, JpaRepository<T, Long> repository,
+                                    Function<T, Long> idExtractor, String entityName) {
+        Set<Long> addedIds = new LinkedHashSet<>(ids);
+        Set<Long> changedIds = new LinkedHashSet<>();
+        members.removeIf(member -> !addedIds.contains(idExtractor.apply(member))
+                && changedIds.add(idExtractor.apply(member)));
+        members.forEach(member -> addedIds.remove(idExtractor.apply(member)));
+        members.addAll(findAllOrThrow(repository, addedIds, idExtractor, entityName));
+        changedIds.addAll(addedIds);
+        return changedIds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.UnsupportedFormatException;
+
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Format " + value + " not supported");
+    }
+}
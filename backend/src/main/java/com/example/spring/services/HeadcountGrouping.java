@@ -0,0 +1,19 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.UnsupportedGroupingException;
+
+public enum HeadcountGrouping {
+
+    ENTERPRISE,
+    DEPARTMENT,
+    POSITION;
+
+    public static HeadcountGrouping fromValue(String value) {
+        for (HeadcountGrouping grouping : values()) {
+            if (grouping.name().equalsIgnoreCase(value)) {
+                return grouping;
+            }
+        }
+        throw new UnsupportedGroupingException("Grouping " + value + " not supported");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.InvalidPatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Applies the members of a JSON Merge Patch (RFC 7396) document to an entity one field
+ * at a time: absent members are left alone and {@code null} clears the value. Only the
+ * setters of supplied fields are called, so Hibernate's dirty checking writes just the
+ * columns that actually changed.
+ */
+final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    static void requireObject(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("Merge patch must be a JSON object");
+        }
+    }
+
+    static void text(JsonNode patch, String field, Consumer<String> setter) {
+        JsonNode value = patch.get(field);
+        if (value == null) {
+            return;
+        }
+        if (!value.isNull() && !value.isTextual()) {
+            throw new InvalidPatchException("Field " + field + " must be a string");
+        }
+        setter.accept(value.textValue());
+    }
+
+    static void integer(JsonNode patch, String field, Consumer<Integer> setter) {
+        JsonNode value = patch.get(field);
+        if (value == null) {
+            return;
+        }
+        if (!value.isNull() && !(value.isIntegralNumber() && value.canConvertToInt())) {
+            throw new InvalidPatchException("Field " + field + " must be an integer");
+        }
+        setter.accept(value.isNull() ? null : value.intValue());
+    }
+
+    /**
+     * Returns the ids of an association given as an array of {@code {"id": ...}} objects,
+     * or empty when the association is not part of the patch.
+     */
+    static Optional<List<Long>> ids(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        if (value == null) {
+            return Optional.empty();
+        }
+        List<Long> ids = new ArrayList<>();
+        if (value.isNull()) {
+            return Optional.of(ids);
+        }
+        if (!value.isArray()) {
+            throw new InvalidPatchException("Field " + field + " must be an array");
+        }
+        for (JsonNode element : value) {
+            JsonNode id = element.get("id");
+            if (id == null || !id.isIntegralNumber() || !id.canConvertToLong()) {
+                throw new InvalidPatchException("Every element of " + field + " must have a numeric id");
+            }
+            ids.add(id.longValue());
+        }
+        return Optional.of(ids);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.spring.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches list query results per table, keyed by query and parameters under the write version of the
+ * table. Writers call {@link #invalidate} inside their transaction: the version is retired right away
+ * and once more when the transaction completes, so a page read while the write was in flight ends up
+ * under a retired version and is never served after the commit. Each table keeps at most
+ * {@code app.list-cache.max-pages-per-table} pages. Past that bound Caffeine evicts by estimated access
+ * frequency (W-TinyLFU), not recency, so a page read once can be dropped before an older, popular one.
+ */
+@Component
+public class QueryResultCache {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String DEPARTMENTS = "departments";
+    public static final String ENTERPRISES = "enterprises";
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Cache<Key, Object>> pages = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long maxPagesPerTable;
+
+    record Key(long version, String query, List<Object> parameters) {
+    }
+
+    public QueryResultCache(MeterRegistry meterRegistry,
+                            @Value("${app.list-cache.max-pages-per-table:1000}") long maxPagesPerTable) {
+        this.meterRegistry = meterRegistry;
+        this.maxPagesPerTable = maxPagesPerTable;
+    }
+
+    /**
+     * Returns the cached result of {@code query} over {@code table}, running {@code loader} on a miss.
+     * Concurrent misses on the same page wait for a single load instead of all hitting the database.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String table, String query, List<Object> parameters, Supplier<T> loader) {
+        Key key = new Key(version(table).get(), query, parameters);
+        return (T) pages(table).get(key, k -> loader.get());
+    }
+
+    public void invalidate(String table) {
+        retire(table);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    retire(table);
+                }
+            });
+        }
+    }
+
+    long size(String table) {
+        Cache<Key, Object> cache = pages(table);
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void retire(String table) {
+        version(table).incrementAndGet();
+        pages(table).invalidateAll();
+    }
+
+    private AtomicLong version(String table) {
+        return versions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private Cache<Key, Object> pages(String table) {
+        return pages.computeIfAbsent(table, t -> {
+            Cache<Key, Object> cache = Caffeine.newBuilder()
+                    .maximumSize(maxPagesPerTable)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "list-" + t);
+            return cache;
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.AgeBandDTO;
+import com.example.spring.dto.HeadcountDTO;
+import com.example.spring.repositories.DepartmentRepository;
+import com.example.spring.repositories.EmployeeRepository;
+import com.example.spring.repositories.EnterpriseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregate reports computed by the database. Every report is a single {@code GROUP BY} query
+ * returning one compact row per group, so no entity is loaded and the response size depends on
+ * the number of groups rather than the number of employees.
+ */
+@Service
+public class ReportService {
+
+    public static final int DEFAULT_BAND_WIDTH = 10;
+
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Transactional(readOnly = true)
+    public List<HeadcountDTO> headcount(HeadcountGrouping grouping) {
+        return switch (grouping) {
+            case ENTERPRISE -> enterpriseRepository.countEmployeesByEnterprise();
+            case DEPARTMENT -> departmentRepository.countEmployeesByDepartment();
+            case POSITION -> employeeRepository.countEmployeesByPosition();
+        };
+    }
+
+    /**
+     * Counts employees per age band of {@code width} years. The database groups by exact age, which
+     * yields at most one row per distinct age and avoids vendor-specific integer division in the
+     * query, and the rows are folded into bands here.
+     */
+    @Transactional(readOnly = true)
+    public List<AgeBandDTO> ageBands(Integer width) {
+        int bandWidth = width == null || width < 1 ? DEFAULT_BAND_WIDTH : width;
+        List<AgeBandDTO> bands = new ArrayList<>();
+        AgeBandDTO unknown = null;
+        for (Object[] row : employeeRepository.countEmployeesByAge()) {
+            Integer age = (Integer) row[0];
+            Long count = (Long) row[1];
+            if (age == null) {
+                unknown = new AgeBandDTO(null, null, count);
+                continue;
+            }
+            int minAge = Math.floorDiv(age, bandWidth) * bandWidth;
+            AgeBandDTO last = bands.isEmpty() ? null : bands.get(bands.size() - 1);
+            if (last != null && last.getMinAge() == minAge) {
+                last.setHeadcount(last.getHeadcount() + count);
+            } else {
+                bands.add(new AgeBandDTO(minAge, minAge + bandWidth - 1, count));
+            }
+        }
+        if (unknown != null) {
+            bands.add(unknown);
+        }
+        return bands;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.spring.services;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a write that lost an optimistic-locking race, with jittered exponential
+ * backoff, and rethrows the conflict once {@code app.optimistic-retry.max-attempts}
+ * attempts have failed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(retryFor = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${app.optimistic-retry.max-attempts:3}",
+        backoff = @Backoff(delayExpression = "${app.optimistic-retry.delay:20}",
+                maxDelayExpression = "${app.optimistic-retry.max-delay:200}",
+                multiplier = 2, random = true))
+@interface RetryOnConflict {
+}
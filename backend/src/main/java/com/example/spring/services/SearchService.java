@@ -0,0 +1,68 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.SearchHitDTO;
+import com.example.spring.repositories.DepartmentRepository;
+import com.example.spring.repositories.EnterpriseRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Service
+public class SearchService implements SmartInitializingSingleton {
+
+    @Autowired
+    private TextIndex textIndex;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+
+    public List<SearchHitDTO> search(String query, Integer limit) {
+        return textIndex.search(query, CursorPageDTO.pageSize(limit));
+    }
+
+    /**
+     * Tokenizes the document now and puts it into the index once the current transaction commits.
+     */
+    public void indexAfterCommit(String type, Long id, String name, String body) {
+        TextIndex.Document document = TextIndex.document(type, id, name, body);
+        AfterCommit.run(() -> textIndex.put(document));
+    }
+
+    public void removeAfterCommit(String type, Long id) {
+        AfterCommit.run(() -> textIndex.removeAll(type, List.of(id)));
+    }
+
+    // runs before the web server starts, so no request sees a partially built index
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the index from the database: both tables are read concurrently as id/text projections
+     * (no entities or associations are loaded) and tokenized on all cores.
+     */
+    public void rebuild() {
+        CompletableFuture<List<TextIndex.Document>> departments = CompletableFuture.supplyAsync(
+                () -> documents(TextIndex.DEPARTMENT, departmentRepository::findSearchableText));
+        CompletableFuture<List<TextIndex.Document>> enterprises = CompletableFuture.supplyAsync(
+                () -> documents(TextIndex.ENTERPRISE, enterpriseRepository::findSearchableText));
+
+        List<TextIndex.Document> documents = new ArrayList<>(departments.join());
+        documents.addAll(enterprises.join());
+        textIndex.replaceAll(documents);
+    }
+
+    private List<TextIndex.Document> documents(String type, Supplier<List<Object[]>> rows) {
+        return rows.get().parallelStream()
+                .map(row -> TextIndex.document(type, (Long) row[0], (String) row[1], (String) row[2]))
+                .toList();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.SearchHitDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over department and enterprise text, ranked with Okapi BM25. Every document
+ * keeps its own term frequencies so an update only touches the postings of that document, and the
+ * read/write lock lets searches run concurrently while writers hold it for a single document at a time.
+ */
+@Component
+public class TextIndex {
+
+    public static final String DEPARTMENT = "department";
+    public static final String ENTERPRISE = "enterprise";
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    // a term in the name counts as much as this many occurrences in the body
+    private static final int NAME_WEIGHT = 2;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final Map<Key, Document> documents = new HashMap<>();
+    private final Map<String, Map<Key, Integer>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    record Key(String type, Long id) {
+    }
+
+    record Document(Key key, String name, Map<String, Integer> frequencies, int length) {
+    }
+
+    /**
+     * Tokenizes one entity outside of any lock, so callers can build documents in parallel and only
+     * serialize on {@link #put} or {@link #replaceAll}.
+     */
+    static Document document(String type, Long id, String name, String body) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(name)) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String term : tokenize(body)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        return new Document(new Key(type, id), name, frequencies, length);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.key());
+            addLocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(String type, Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> removeLocked(new Key(type, id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Document> replacement) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+            replacement.forEach(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SearchHitDTO> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || documents.isEmpty()) {
+                return List.of();
+            }
+            int count = documents.size();
+            double averageLength = (double) totalLength / count;
+            Map<Key, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Key, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((key, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(key).length() / averageLength);
+                    scores.merge(key, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+
+            // ids repeat across types, so equal scores are ordered by id and then type to keep pages stable
+            Comparator<Map.Entry<Key, Double>> ranking = Map.Entry.<Key, Double>comparingByValue()
+                    .thenComparing(entry -> entry.getKey().id(), Comparator.reverseOrder())
+                    .thenComparing(entry -> entry.getKey().type(), Comparator.reverseOrder());
+            PriorityQueue<Map.Entry<Key, Double>> top = new PriorityQueue<>(ranking);
+            for (Map.Entry<Key, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<SearchHitDTO> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Key, Double> entry = top.poll();
+                Key key = entry.getKey();
+                hits.add(0, new SearchHitDTO(key.type(), key.id(), documents.get(key).name(), entry.getValue()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Document document) {
+        documents.put(document.key(), document);
+        document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), frequency));
+        totalLength += document.length();
+    }
+
+    private void removeLocked(Key key) {
+        Document previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        previous.frequencies().keySet().forEach(term -> {
+            Map<Key, Integer> posting = postings.get(term);
+            posting.remove(key);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        totalLength -= previous.length();
+    }
+}
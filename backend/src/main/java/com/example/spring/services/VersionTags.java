@@ -0,0 +1,70 @@
+package com.example.spring.services;
+
+import com.example.spring.services.exceptions.PreconditionFailedException;
+import com.example.spring.services.exceptions.ResourceNotFoundException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds the strong ETag of a {@code findById} representation from the version of the
+ * entity and the ids and versions of the nested entities it embeds. The rows come from a
+ * projection query, so a conditional GET is answered without loading any collection or
+ * serializing the body.
+ */
+final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    static String of(List<Object[]> rows, Long id) {
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Entity with id " + id + " not found");
+        }
+        StringBuilder versions = new StringBuilder().append(rows.get(0)[0]);
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                versions.append(';').append(row[1]).append(':').append(row[2]);
+            }
+        }
+
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The same tag built from entities already loaded, in the row layout of the projection
+     * queries, so a cached representation carries the tag of the versions it was read from.
+     */
+    static <T> String of(Long version, Collection<T> nested, Function<T, Long> idOf, Function<T, Long> versionOf, Long id) {
+        List<Object[]> rows = new ArrayList<>();
+        nested.stream().sorted(Comparator.comparing(idOf))
+                .forEach(entity -> rows.add(new Object[]{version, idOf.apply(entity), versionOf.apply(entity)}));
+        if (rows.isEmpty()) {
+            rows.add(new Object[]{version, null, null});
+        }
+
+        return of(rows, id);
+    }
+
+    /**
+     * Checks an {@code If-Match} header against the current tag, in any of the formats the
+     * entity is served in, and returns the version the entity must still have when it is written.
+     */
+    static Long requireMatch(List<Object[]> rows, Long id, String ifMatch) {
+        String tag = of(rows, id);
+        // the CBOR and Smile representations carry the same tag with a "-cbor" or "-smile" suffix
+        String representationPrefix = tag.substring(0, tag.length() - 1) + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(tag) || trimmed.startsWith(representationPrefix)) {
+                return (Long) rows.get(0)[0];
+            }
+        }
+        throw new PreconditionFailedException("Entity with id " + id + " has been modified");
+    }
+}
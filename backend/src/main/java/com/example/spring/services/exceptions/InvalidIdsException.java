@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class InvalidIdsException extends RuntimeException {
+
+    public InvalidIdsException(String msg) {
+        super(msg);
+    }
+}
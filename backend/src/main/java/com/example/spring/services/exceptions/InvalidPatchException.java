@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String msg) {
+        super(msg);
+    }
+}
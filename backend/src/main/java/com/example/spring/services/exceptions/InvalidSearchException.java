@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String msg) {
+        super(msg);
+    }
+}
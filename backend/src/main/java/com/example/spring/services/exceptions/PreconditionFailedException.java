@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String msg) {
+        super(msg);
+    }
+}
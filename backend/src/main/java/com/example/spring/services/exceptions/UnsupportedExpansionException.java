@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class UnsupportedExpansionException extends RuntimeException {
+
+    public UnsupportedExpansionException(String msg) {
+        super(msg);
+    }
+}
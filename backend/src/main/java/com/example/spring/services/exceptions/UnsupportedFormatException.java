@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String msg) {
+        super(msg);
+    }
+}
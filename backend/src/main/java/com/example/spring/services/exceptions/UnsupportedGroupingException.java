@@ -0,0 +1,8 @@
+package com.example.spring.services.exceptions;
+
+public class UnsupportedGroupingException extends RuntimeException {
+
+    public UnsupportedGroupingException(String msg) {
+        super(msg);
+    }
+}
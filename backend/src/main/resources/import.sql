@@ -1,15 +1,18 @@
-INSERT INTO enterprises(name, created_At) VALUES ('Kojima Productions Co.', NOW());
-INSERT INTO enterprises(name, created_At) VALUES ('Valve Corporation', NOW());
-INSERT INTO enterprises(name, created_At) VALUES ('FromSoftware, Inc.', NOW());
-INSERT INTO departments(name, created_At) VALUES ('IT', NOW());
-INSERT INTO departments(name, created_At) VALUES ('Compliance', NOW());
-INSERT INTO departments(name, created_At) VALUES ('Legal', NOW());
-INSERT INTO employees(first_name, position, created_At) VALUES ('John', 'Backend Developer', NOW());
-INSERT INTO employees(first_name, position, created_At) VALUES ('Caitlyn', 'Product Manager', NOW());
-INSERT INTO employees(first_name, position, created_At) VALUES ('Scott', 'Director', NOW());
+INSERT INTO enterprises(id, name, created_At, version) VALUES (1, 'Kojima Productions Co.', NOW(), 0);
+INSERT INTO enterprises(id, name, created_At, version) VALUES (2, 'Valve Corporation', NOW(), 0);
+INSERT INTO enterprises(id, name, created_At, version) VALUES (3, 'FromSoftware, Inc.', NOW(), 0);
+INSERT INTO departments(id, name, created_At, version) VALUES (1, 'IT', NOW(), 0);
+INSERT INTO departments(id, name, created_At, version) VALUES (2, 'Compliance', NOW(), 0);
+INSERT INTO departments(id, name, created_At, version) VALUES (3, 'Legal', NOW(), 0);
+INSERT INTO employees(id, first_name, position, created_At, version) VALUES (1, 'John', 'Backend Developer', NOW(), 0);
+INSERT INTO employees(id, first_name, position, created_At, version) VALUES (2, 'Caitlyn', 'Product Manager', NOW(), 0);
+INSERT INTO employees(id, first_name, position, created_At, version) VALUES (3, 'Scott', 'Director', NOW(), 0);
 -- INSERT INTO departments_employees(department_id, employee_id) VALUES (1 ,1);
 -- INSERT INTO departments_employees(department_id, employee_id) VALUES (1 ,2);
 -- INSERT INTO departments_employees(department_id, employee_id) VALUES (3 ,3);
 -- INSERT INTO enterprises_departments(enterprise_id, department_id) VALUES (1 ,1);
 -- INSERT INTO enterprises_departments(enterprise_id, department_id) VALUES (1 ,2);
 -- INSERT INTO enterprises_departments(enterprise_id, department_id) VALUES (1 ,3);
+ALTER SEQUENCE enterprises_seq RESTART WITH 4;
+ALTER SEQUENCE departments_seq RESTART WITH 4;
+ALTER SEQUENCE employees_seq RESTART WITH 4;
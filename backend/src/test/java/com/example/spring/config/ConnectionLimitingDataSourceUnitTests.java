@@ -0,0 +1,56 @@
+package com.example.spring.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+public class ConnectionLimitingDataSourceUnitTests {
+
+    @Test
+    public void getConnectionShouldThrowSQLTransientConnectionExceptionWhenAllPermitsAreInUse() throws SQLException {
+        // Arrange
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10L);
+        dataSource.getConnection();
+
+        // Act & Assert
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    public void closeShouldReleasePermitOnceWhenConnectionIsClosedTwice() throws SQLException {
+        // Arrange
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, 10L);
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act
+        first.close();
+        first.close();
+
+        // Assert
+        Assertions.assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    public void getConnectionShouldReleasePermitWhenTargetFails() throws SQLException {
+        // Arrange
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10L);
+
+        // Act
+        Assertions.assertThrows(SQLException.class, dataSource::getConnection);
+
+        // Assert
+        Assertions.assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
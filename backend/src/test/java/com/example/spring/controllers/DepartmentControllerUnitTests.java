@@ -1,11 +1,20 @@
 package com.example.spring.controllers;
 
+import com.example.spring.config.BinaryFormatConfig;
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EnterpriseSummaryDTO;
 import com.example.spring.factories.DepartmentFactory;
 import com.example.spring.services.DepartmentService;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidCursorException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -13,7 +22,9 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -23,6 +34,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @WebMvcTest(DepartmentController.class)
+@Import(BinaryFormatConfig.class)
 public class DepartmentControllerUnitTests {
 
     @Autowired
@@ -33,32 +45,53 @@ public class DepartmentControllerUnitTests {
     private ObjectMapper objectMapper;
     private Long existingId;
     private Long nonExistingId;
+    private String eTag;
+    private String staleETag;
     private Long tracedId;
+    private String invalidCursor;
     private DepartmentDTO departmentDTO;
-    private List<DepartmentDTO> list;
+    private DepartmentDTO expandedDepartmentDTO;
+    private CursorPageDTO<DepartmentDTO> page;
 
     @BeforeEach
     void setUp() throws Exception {
 
         existingId = 1L;
         nonExistingId = 99L;
+        eTag = "\"5d41402abc4b2a76b9719d911017c592\"";
+        staleETag = "\"7d793037a0760186574b0282f2f435e7\"";
         tracedId = 2L;
+        invalidCursor = "not-a-cursor";
         departmentDTO = DepartmentFactory.createDepartmentDTO();
-        list = new ArrayList<>(List.of(departmentDTO));
+        departmentDTO.setVersionTag(eTag);
+        expandedDepartmentDTO = DepartmentFactory.createDepartmentDTO();
+        expandedDepartmentDTO.setEnterprise(new EnterpriseSummaryDTO(1L, "Kojima Productions Co."));
+        page = new CursorPageDTO<>(new ArrayList<>(List.of(departmentDTO)), null);
 
-        Mockito.when(departmentService.findAll()).thenReturn(list);
+        Mockito.when(departmentService.findAll(ArgumentMatchers.isNull(), ArgumentMatchers.any())).thenReturn(page);
+        Mockito.when(departmentService.findAll(ArgumentMatchers.eq(invalidCursor), ArgumentMatchers.any())).thenThrow(InvalidCursorException.class);
 
         Mockito.when(departmentService.findById(existingId)).thenReturn(departmentDTO);
         Mockito.when(departmentService.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(departmentService.findVersionTag(existingId)).thenReturn(eTag);
+        Mockito.when(departmentService.findVersionTag(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(departmentService.findByIdWithEnterprise(existingId)).thenReturn(expandedDepartmentDTO);
+        Mockito.when(departmentService.findVersionTagWithEnterprise(existingId)).thenReturn(staleETag);
 
         Mockito.when(departmentService.insert(ArgumentMatchers.any())).thenReturn(departmentDTO);
 
-        Mockito.when(departmentService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any())).thenReturn(departmentDTO);
-        Mockito.when(departmentService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(departmentService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(departmentDTO);
+        Mockito.when(departmentService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(departmentService.patch(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(departmentDTO);
+        Mockito.when(departmentService.patch(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(departmentService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.eq(staleETag))).thenThrow(PreconditionFailedException.class);
+        Mockito.when(departmentService.update(ArgumentMatchers.eq(tracedId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ObjectOptimisticLockingFailureException.class);
 
         Mockito.doNothing().when(departmentService).delete(existingId);
         Mockito.doThrow(ResourceNotFoundException.class).when(departmentService).delete(nonExistingId);
         Mockito.doThrow(DatabaseException.class).when(departmentService).delete(tracedId);
+        Mockito.doNothing().when(departmentService).deleteAll(List.of(existingId, tracedId));
+        Mockito.doThrow(ResourceNotFoundException.class).when(departmentService).deleteAll(List.of(nonExistingId));
     }
 
     @Test
@@ -71,6 +104,20 @@ public class DepartmentControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content").exists());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments")
+                        .param("after", invalidCursor)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
     @Test
@@ -83,12 +130,57 @@ public class DepartmentControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.name").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.description").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.phone").exists());
     }
 
+    @Test
+    public void findByIdShouldReturnEnterpriseSummaryWhenExpanded() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .param("expand", "enterprise")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", staleETag));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.enterprise.id").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.enterprise.name").exists());
+        Mockito.verify(departmentService, Mockito.never()).findById(existingId);
+    }
+
+    @Test
+    public void findByIdShouldOmitEnterpriseWhenNotExpanded() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.enterprise").doesNotExist());
+    }
+
+    @Test
+    public void findByIdShouldReturnBadRequestWhenExpansionIsNotSupported() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .param("expand", "employees")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Unsupported expansion"));
+    }
+
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
 
@@ -101,6 +193,41 @@ public class DepartmentControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void findByIdShouldReloadCachedEntryWhenItsVersionTagIsStale() throws Exception {
+
+        // Arrange
+        DepartmentDTO staleDTO = DepartmentFactory.createDepartmentDTO();
+        staleDTO.setVersionTag(staleETag);
+        Mockito.when(departmentService.findById(existingId)).thenReturn(staleDTO);
+        Mockito.when(departmentService.refreshById(existingId)).thenReturn(departmentDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
+        Mockito.verify(departmentService).refreshById(existingId);
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotModified());
+        result.andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(departmentService, Mockito.never()).findById(existingId);
+    }
+
     @Test
     public void insertShouldReturnDepartmentDTOCreated() throws Exception {
 
@@ -137,6 +264,7 @@ public class DepartmentControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.name").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.description").exists());
@@ -160,6 +288,146 @@ public class DepartmentControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+
+        // Arrange
+        String jsonBody = objectMapper.writeValueAsString(departmentDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.put("/departments/{id}", existingId)
+                        .header("If-Match", staleETag)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateShouldReturnConflictWhenConcurrentWritesKeepFailing() throws Exception {
+
+        // Arrange
+        String jsonBody = objectMapper.writeValueAsString(departmentDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.put("/departments/{id}", tracedId)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    public void patchShouldReturnDepartmentDTOWhenIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/departments/{id}", existingId)
+                        .content("{\"phone\": \"555-555-0000\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
+    }
+
+    @Test
+    public void findByIdShouldReturnJsonWhenAnyTypeIsAccepted() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .accept(MediaType.ALL));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void findByIdShouldReturnCborWhenCborIsAccepted() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .accept(MediaType.APPLICATION_CBOR));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+        JsonNode body = new CBORMapper().readTree(result.andReturn().getResponse().getContentAsByteArray());
+        Assertions.assertEquals(departmentDTO.getId(), body.get("id").asLong());
+        Assertions.assertEquals(departmentDTO.getName(), body.get("name").asText());
+    }
+
+    @Test
+    public void findByIdShouldTagCborRepresentationApartFromJson() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .accept(MediaType.APPLICATION_CBOR));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag.substring(0, eTag.length() - 1) + "-cbor\""));
+        Assertions.assertTrue(result.andReturn().getResponse().getHeaders("Vary").contains("Accept"));
+    }
+
+    @Test
+    public void findByIdShouldNotReturnNotModifiedWhenTagBelongsToAnotherFormat() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/departments/{id}", existingId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_CBOR));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void patchShouldAcceptSmileBody() throws Exception {
+
+        // Arrange
+        byte[] patch = new SmileMapper().writeValueAsBytes(objectMapper.readTree("{\"phone\": \"555-555-0000\"}"));
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/departments/{id}", existingId)
+                        .content(patch)
+                        .contentType("application/x-jackson-smile")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(departmentService).patch(ArgumentMatchers.eq(existingId),
+                ArgumentMatchers.eq(objectMapper.readTree("{\"phone\": \"555-555-0000\"}")), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void patchShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/departments/{id}", nonExistingId)
+                        .content("{\"phone\": \"555-555-0000\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     public void deleteShouldReturnNoContentWhenIdExists() throws Exception {
 
@@ -183,4 +451,30 @@ public class DepartmentControllerUnitTests {
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    public void deleteAllShouldReturnNoContentWhenAnyIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/departments")
+                        .param("ids", existingId.toString(), tracedId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNoContent());
+    }
+
+    @Test
+    public void deleteAllShouldReturnNotFoundWhenNoIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/departments")
+                        .param("ids", nonExistingId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
 }
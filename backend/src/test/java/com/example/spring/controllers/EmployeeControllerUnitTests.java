@@ -1,9 +1,16 @@
 package com.example.spring.controllers;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EmployeeDTO;
 import com.example.spring.factories.EmployeeFactory;
 import com.example.spring.services.EmployeeService;
+import com.example.spring.services.ExportFormat;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidCursorException;
+import com.example.spring.services.exceptions.InvalidIdsException;
+import com.example.spring.services.exceptions.InvalidPatchException;
+import com.example.spring.services.exceptions.InvalidSearchException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -33,32 +41,53 @@ public class EmployeeControllerUnitTests {
     private ObjectMapper objectMapper;
     private Long existingId;
     private Long nonExistingId;
+    private String eTag;
+    private String staleETag;
     private Long tracedId;
+    private String invalidCursor;
+    private String invalidSort;
     private EmployeeDTO employeeDTO;
-    private List<EmployeeDTO> list;
+    private CursorPageDTO<EmployeeDTO> page;
 
     @BeforeEach
     void setUp() throws Exception {
 
         existingId = 1L;
         nonExistingId = 99L;
+        eTag = "\"5d41402abc4b2a76b9719d911017c592\"";
+        staleETag = "\"7d793037a0760186574b0282f2f435e7\"";
         tracedId = 2L;
+        invalidCursor = "not-a-cursor";
+        invalidSort = "salary,desc";
         employeeDTO = EmployeeFactory.createEmployeeDTO();
-        list = new ArrayList<>(List.of(employeeDTO));
+        page = new CursorPageDTO<>(new ArrayList<>(List.of(employeeDTO)), null);
 
-        Mockito.when(employeeService.findAll()).thenReturn(list);
+        Mockito.when(employeeService.findAll(ArgumentMatchers.isNull(), ArgumentMatchers.any())).thenReturn(page);
+        Mockito.when(employeeService.findAll(ArgumentMatchers.eq(invalidCursor), ArgumentMatchers.any())).thenThrow(InvalidCursorException.class);
+        Mockito.when(employeeService.search(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(page);
+        Mockito.when(employeeService.search(ArgumentMatchers.any(), ArgumentMatchers.eq(invalidSort), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(InvalidSearchException.class);
 
         Mockito.when(employeeService.findById(existingId)).thenReturn(employeeDTO);
         Mockito.when(employeeService.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(employeeService.findVersionTag(existingId)).thenReturn(eTag);
+        Mockito.when(employeeService.findVersionTag(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
         Mockito.when(employeeService.insert(ArgumentMatchers.any())).thenReturn(employeeDTO);
+        Mockito.when(employeeService.insertAll(ArgumentMatchers.any())).thenReturn(List.of(employeeDTO));
 
-        Mockito.when(employeeService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any())).thenReturn(employeeDTO);
-        Mockito.when(employeeService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(employeeService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(employeeDTO);
+        Mockito.when(employeeService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(employeeService.patch(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(employeeDTO);
+        Mockito.when(employeeService.patch(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(employeeService.patch(ArgumentMatchers.eq(tracedId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(InvalidPatchException.class);
+        Mockito.when(employeeService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.eq(staleETag))).thenThrow(PreconditionFailedException.class);
 
         Mockito.doNothing().when(employeeService).delete(existingId);
         Mockito.doThrow(ResourceNotFoundException.class).when(employeeService).delete(nonExistingId);
         Mockito.doThrow(DatabaseException.class).when(employeeService).delete(tracedId);
+        Mockito.doNothing().when(employeeService).deleteAll(List.of(existingId, tracedId));
+        Mockito.doThrow(ResourceNotFoundException.class).when(employeeService).deleteAll(List.of(nonExistingId));
+        Mockito.doThrow(InvalidIdsException.class).when(employeeService).deleteAll(List.of());
     }
 
     @Test
@@ -71,6 +100,89 @@ public class EmployeeControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content").exists());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees")
+                        .param("after", invalidCursor)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void searchShouldBindFiltersAndReturnPage() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees/search")
+                        .param("lastName", "Cr")
+                        .param("position", "Backend Developer")
+                        .param("minAge", "30")
+                        .param("maxAge", "40")
+                        .param("sort", "age,desc")
+                        .param("limit", "10")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content").exists());
+        Mockito.verify(employeeService).search(
+                ArgumentMatchers.argThat(filter -> "Cr".equals(filter.getLastName())
+                        && "Backend Developer".equals(filter.getPosition())
+                        && filter.getEmail() == null
+                        && filter.getMinAge() == 30 && filter.getMaxAge() == 40),
+                ArgumentMatchers.eq("age,desc"), ArgumentMatchers.isNull(), ArgumentMatchers.eq(10));
+    }
+
+    @Test
+    public void searchShouldReturnBadRequestWhenSortIsUnsupported() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees/search")
+                        .param("sort", invalidSort)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void exportShouldStreamCsvWhenFormatIsCsv() throws Exception {
+
+        // Act
+        MvcResult asyncResult =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees/export")
+                                .param("format", "csv"))
+                        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                        .andReturn();
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.content().contentType("text/csv"));
+
+        Mockito.verify(employeeService, Mockito.times(1))
+                .export(ArgumentMatchers.eq(ExportFormat.CSV), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void exportShouldReturnBadRequestWhenFormatIsUnsupported() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees/export")
+                        .param("format", "xml"));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
     @Test
@@ -83,6 +195,7 @@ public class EmployeeControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.firstName").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.lastName").exists());
@@ -103,6 +216,21 @@ public class EmployeeControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/employees/{id}", existingId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotModified());
+        result.andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(employeeService, Mockito.never()).findById(existingId);
+    }
+
     @Test
     public void insertShouldReturnEmployeeDTOCreated() throws Exception{
 
@@ -126,6 +254,25 @@ public class EmployeeControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.jsonPath("$.email").exists());
     }
 
+    @Test
+    public void insertAllShouldReturnEmployeeDTOListCreated() throws Exception {
+
+        // Arrange
+        String jsonBody = objectMapper.writeValueAsString(List.of(employeeDTO));
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.post("/employees/batch")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isCreated());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").exists());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].email").exists());
+    }
+
     @Test
     public void updateShouldReturnEmployeeDTOWhenIdExists() throws Exception{
 
@@ -141,6 +288,7 @@ public class EmployeeControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.firstName").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.lastName").exists());
@@ -166,6 +314,68 @@ public class EmployeeControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+
+        // Arrange
+        String jsonBody = objectMapper.writeValueAsString(employeeDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.put("/employees/{id}", existingId)
+                        .header("If-Match", staleETag)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    public void patchShouldReturnEmployeeDTOWhenIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/employees/{id}", existingId)
+                        .content("{\"email\": \"new@spring.com\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
+    }
+
+    @Test
+    public void patchShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/employees/{id}", nonExistingId)
+                        .content("{\"email\": \"new@spring.com\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void patchShouldReturnBadRequestWhenPatchIsInvalid() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/employees/{id}", tracedId)
+                        .content("{\"age\": \"thirty\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void deleteShouldReturnNoContentWhenIdExists() throws Exception {
 
@@ -189,4 +399,44 @@ public class EmployeeControllerUnitTests {
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    public void deleteAllShouldReturnNoContentWhenAnyIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/employees")
+                        .param("ids", existingId.toString(), tracedId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNoContent());
+    }
+
+    @Test
+    public void deleteAllShouldReturnNotFoundWhenNoIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/employees")
+                        .param("ids", nonExistingId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void deleteAllShouldReturnBadRequestWhenIdsAreEmpty() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/employees")
+                        .param("ids", "")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Invalid ids"));
+    }
 }
@@ -1,9 +1,12 @@
 package com.example.spring.controllers;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EnterpriseDTO;
 import com.example.spring.factories.EnterpriseFactory;
 import com.example.spring.services.EnterpriseService;
 import com.example.spring.services.exceptions.DatabaseException;
+import com.example.spring.services.exceptions.InvalidCursorException;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -33,32 +37,49 @@ public class EnterpriseControllerUnitTests {
     private ObjectMapper objectMapper;
     private Long existingId;
     private Long nonExistingId;
+    private String eTag;
+    private String staleETag;
     private Long tracedId;
+    private String invalidCursor;
     private EnterpriseDTO enterpriseDTO;
-    private List<EnterpriseDTO> list;
+    private CursorPageDTO<EnterpriseDTO> page;
 
     @BeforeEach
     void setUp() throws Exception {
 
         existingId = 1L;
         nonExistingId = 99L;
+        eTag = "\"5d41402abc4b2a76b9719d911017c592\"";
+        staleETag = "\"7d793037a0760186574b0282f2f435e7\"";
         tracedId = 2L;
+        invalidCursor = "not-a-cursor";
         enterpriseDTO = EnterpriseFactory.createEnterpriseDTO();
-        list = new ArrayList<>(List.of(enterpriseDTO));
+        enterpriseDTO.setVersionTag(eTag);
+        page = new CursorPageDTO<>(new ArrayList<>(List.of(enterpriseDTO)), null);
 
-        Mockito.when(enterpriseService.findAll()).thenReturn(list);
+        Mockito.when(enterpriseService.findAll(ArgumentMatchers.isNull(), ArgumentMatchers.any())).thenReturn(page);
+        Mockito.when(enterpriseService.findAll(ArgumentMatchers.eq(invalidCursor), ArgumentMatchers.any())).thenThrow(InvalidCursorException.class);
 
         Mockito.when(enterpriseService.findById(existingId)).thenReturn(enterpriseDTO);
         Mockito.when(enterpriseService.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(enterpriseService.findVersionTag(existingId)).thenReturn(eTag);
+        Mockito.when(enterpriseService.findVersionTag(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(enterpriseService.findTreeRoot(existingId)).thenReturn(enterpriseDTO);
+        Mockito.when(enterpriseService.findTreeRoot(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
         Mockito.when(enterpriseService.insert(ArgumentMatchers.any())).thenReturn(enterpriseDTO);
 
-        Mockito.when(enterpriseService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any())).thenReturn(enterpriseDTO);
-        Mockito.when(enterpriseService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(enterpriseService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(enterpriseDTO);
+        Mockito.when(enterpriseService.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(enterpriseService.patch(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(enterpriseDTO);
+        Mockito.when(enterpriseService.patch(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(enterpriseService.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.eq(staleETag))).thenThrow(PreconditionFailedException.class);
 
         Mockito.doNothing().when(enterpriseService).delete(existingId);
         Mockito.doThrow(ResourceNotFoundException.class).when(enterpriseService).delete(nonExistingId);
         Mockito.doThrow(DatabaseException.class).when(enterpriseService).delete(tracedId);
+        Mockito.doNothing().when(enterpriseService).deleteAll(List.of(existingId, tracedId));
+        Mockito.doThrow(ResourceNotFoundException.class).when(enterpriseService).deleteAll(List.of(nonExistingId));
     }
 
     @Test
@@ -71,6 +92,20 @@ public class EnterpriseControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content").exists());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/enterprises")
+                        .param("after", invalidCursor)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
     @Test
@@ -83,6 +118,7 @@ public class EnterpriseControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.name").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.address").exists());
@@ -101,6 +137,70 @@ public class EnterpriseControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void findByIdShouldReloadCachedEntryWhenItsVersionTagIsStale() throws Exception {
+
+        // Arrange
+        EnterpriseDTO staleDTO = EnterpriseFactory.createEnterpriseDTO();
+        staleDTO.setVersionTag(staleETag);
+        Mockito.when(enterpriseService.findById(existingId)).thenReturn(staleDTO);
+        Mockito.when(enterpriseService.refreshById(existingId)).thenReturn(enterpriseDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/enterprises/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
+        Mockito.verify(enterpriseService).refreshById(existingId);
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/enterprises/{id}", existingId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotModified());
+        result.andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(enterpriseService, Mockito.never()).findById(existingId);
+    }
+
+    @Test
+    public void findTreeShouldStreamJsonWhenIdExists() throws Exception {
+
+        // Act
+        MvcResult asyncResult =
+                mockMvc.perform(MockMvcRequestBuilders.get("/enterprises/{id}/tree", existingId))
+                        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                        .andReturn();
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+
+        Mockito.verify(enterpriseService, Mockito.times(1))
+                .writeTree(ArgumentMatchers.eq(enterpriseDTO), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void findTreeShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/enterprises/{id}/tree", nonExistingId));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     public void insertShouldReturnEnterpriseDTOCreated() throws Exception {
 
@@ -137,6 +237,7 @@ public class EnterpriseControllerUnitTests {
 
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
         result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.name").exists());
         result.andExpect(MockMvcResultMatchers.jsonPath("$.address").exists());
@@ -160,6 +261,54 @@ public class EnterpriseControllerUnitTests {
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+
+        // Arrange
+        String jsonBody = objectMapper.writeValueAsString(enterpriseDTO);
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.put("/enterprises/{id}", existingId)
+                        .header("If-Match", staleETag)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    public void patchShouldReturnEnterpriseDTOWhenIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/enterprises/{id}", existingId)
+                        .content("{\"address\": \"Tokyo\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", eTag));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
+    }
+
+    @Test
+    public void patchShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.patch("/enterprises/{id}", nonExistingId)
+                        .content("{\"address\": \"Tokyo\"}")
+                        .contentType("application/merge-patch+json")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     public void deleteShouldReturnNoContentWhenIdExists() throws Exception {
 
@@ -183,4 +332,30 @@ public class EnterpriseControllerUnitTests {
         // Assert
         result.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    public void deleteAllShouldReturnNoContentWhenAnyIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/enterprises")
+                        .param("ids", existingId.toString(), tracedId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNoContent());
+    }
+
+    @Test
+    public void deleteAllShouldReturnNotFoundWhenNoIdExists() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.delete("/enterprises")
+                        .param("ids", nonExistingId.toString())
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
 }
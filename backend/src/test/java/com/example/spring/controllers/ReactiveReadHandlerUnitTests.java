@@ -0,0 +1,171 @@
+package com.example.spring.controllers;
+
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
+import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.factories.DepartmentFactory;
+import com.example.spring.factories.EmployeeFactory;
+import com.example.spring.repositories.ReactiveReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveReadHandlerUnitTests {
+
+    private WebTestClient webTestClient;
+    private ReactiveReadRepository repository;
+    private Long existingId;
+    private Long nonExistingId;
+    private DepartmentDTO departmentDTO;
+    private EmployeeDTO employeeDTO;
+
+    @BeforeEach
+    void setUp() {
+
+        existingId = 1L;
+        nonExistingId = 99L;
+        departmentDTO = DepartmentFactory.createDepartmentDTO();
+        employeeDTO = EmployeeFactory.createEmployeeDTO();
+
+        repository = Mockito.mock(ReactiveReadRepository.class);
+        Mockito.when(repository.findDepartments(0L, 21)).thenReturn(Flux.just(departmentDTO));
+        Mockito.when(repository.findDepartments(0L, 2)).thenReturn(Flux.just(departmentDTO, departmentDTO));
+        Mockito.when(repository.findDepartments(existingId, 6)).thenReturn(Flux.empty());
+        Mockito.when(repository.findDepartment(existingId)).thenReturn(Mono.just(departmentDTO));
+        Mockito.when(repository.findEmployeesByDepartmentId(existingId)).thenReturn(Flux.just(employeeDTO));
+        Mockito.when(repository.findDepartment(nonExistingId)).thenReturn(Mono.empty());
+        Mockito.when(repository.findEmployeesByDepartmentId(nonExistingId)).thenReturn(Flux.empty());
+
+        webTestClient = WebTestClient.bindToRouterFunction(new ReactiveReadHandler(repository).routes()).build();
+    }
+
+    @Test
+    public void findAllShouldReturnFirstPageWhenNoCursorIsGiven() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectHeader().contentType(MediaType.APPLICATION_JSON);
+        result.expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(departmentDTO.getId())
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    public void findAllShouldReadAfterGivenCursorWithGivenLimit() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments?after={after}&limit=5",
+                        CursorPageDTO.encodeCursor(existingId))
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectBody().jsonPath("$.content").isEmpty();
+        Mockito.verify(repository).findDepartments(existingId, 6);
+    }
+
+    @Test
+    public void findAllShouldReturnNextCursorWhenMoreRowsExist() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments?limit=1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo(CursorPageDTO.encodeCursor(departmentDTO.getId()));
+    }
+
+    @Test
+    public void findAllShouldStreamNdjsonWhenAccepted() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+        result.expectHeader().doesNotExist(ReactiveReadHandler.NEXT_CURSOR);
+        result.expectBodyList(DepartmentDTO.class).hasSize(1);
+    }
+
+    @Test
+    public void findAllShouldSendNextCursorInHeaderWhenStreamingNdjson() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments?limit=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectHeader().valueEquals(ReactiveReadHandler.NEXT_CURSOR, CursorPageDTO.encodeCursor(departmentDTO.getId()));
+        result.expectBodyList(DepartmentDTO.class).hasSize(1);
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorIsInvalid() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments?after=not-a-cursor")
+                .exchange();
+
+        // Assert
+        result.expectStatus().isBadRequest();
+        result.expectBody().jsonPath("$.error").isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenLimitIsNotANumber() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments?limit=abc")
+                .exchange();
+
+        // Assert
+        result.expectStatus().isBadRequest();
+        result.expectBody().jsonPath("$.error").isEqualTo("Invalid parameter");
+    }
+
+    @Test
+    public void findByIdShouldReturnObjectWithRelatedCollectionWhenIdExists() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments/{id}", existingId)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isOk();
+        result.expectBody()
+                .jsonPath("$.id").isEqualTo(departmentDTO.getId())
+                .jsonPath("$.employees[0].id").isEqualTo(employeeDTO.getId());
+    }
+
+    @Test
+    public void findByIdShouldReturnNotFoundWhenIdDoesNotExist() {
+
+        // Act
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/departments/{id}", nonExistingId)
+                .exchange();
+
+        // Assert
+        result.expectStatus().isNotFound();
+        result.expectBody()
+                .jsonPath("$.error").isEqualTo("Resource not found")
+                .jsonPath("$.path").isEqualTo("/departments/" + nonExistingId);
+    }
+}
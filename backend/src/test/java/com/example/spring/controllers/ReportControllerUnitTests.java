@@ -0,0 +1,80 @@
+package com.example.spring.controllers;
+
+import com.example.spring.dto.AgeBandDTO;
+import com.example.spring.dto.HeadcountDTO;
+import com.example.spring.services.HeadcountGrouping;
+import com.example.spring.services.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@WebMvcTest(ReportController.class)
+public class ReportControllerUnitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mockito.when(reportService.headcount(HeadcountGrouping.DEPARTMENT))
+                .thenReturn(List.of(new HeadcountDTO(1L, "IT", 2L)));
+        Mockito.when(reportService.ageBands(ArgumentMatchers.any()))
+                .thenReturn(List.of(new AgeBandDTO(30, 39, 2L)));
+    }
+
+    @Test
+    public void headcountShouldReturnRowsWhenGroupingIsSupported() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/reports/headcount")
+                        .param("groupBy", "department")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("IT"));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].headcount").value(2));
+    }
+
+    @Test
+    public void headcountShouldReturnBadRequestWhenGroupingIsNotSupported() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/reports/headcount")
+                        .param("groupBy", "salary")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void ageBandsShouldReturnBands() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/reports/age-bands")
+                        .param("width", "10")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].minAge").value(30));
+        Mockito.verify(reportService).ageBands(10);
+    }
+}
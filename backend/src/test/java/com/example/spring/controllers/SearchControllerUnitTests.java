@@ -0,0 +1,62 @@
+package com.example.spring.controllers;
+
+import com.example.spring.dto.SearchHitDTO;
+import com.example.spring.services.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@WebMvcTest(SearchController.class)
+public class SearchControllerUnitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SearchHitDTO hit = new SearchHitDTO("enterprise", 2L, "Valve Corporation", 1.5);
+
+        Mockito.when(searchService.search(ArgumentMatchers.eq("valve"), ArgumentMatchers.any())).thenReturn(List.of(hit));
+    }
+
+    @Test
+    public void searchShouldReturnRankedHits() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/search")
+                        .param("q", "valve")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].type").value("enterprise"));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(2));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Valve Corporation"));
+    }
+
+    @Test
+    public void searchShouldReturnBadRequestWhenQueryIsMissing() throws Exception {
+
+        // Act
+        ResultActions result =
+                mockMvc.perform(MockMvcRequestBuilders.get("/search")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Assert
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
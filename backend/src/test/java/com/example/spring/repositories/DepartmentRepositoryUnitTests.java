@@ -1,5 +1,6 @@
 package com.example.spring.repositories;
 
+import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.factories.DepartmentFactory;
 import com.example.spring.models.Department;
 import org.junit.jupiter.api.Assertions;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +41,18 @@ public class DepartmentRepositoryUnitTests {
         Assertions.assertFalse(result.isEmpty());
     }
 
+    @Test
+    public void findDTOByIdGreaterThanShouldReturnSliceOrderedByIdAfterGivenId() {
+
+        // Act
+        Slice<DepartmentDTO> result = departmentRepository.findDTOByIdGreaterThan(existingId, PageRequest.of(0, 1));
+
+        // Assert
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertEquals(existingId + 1, result.getContent().get(0).getId());
+        Assertions.assertTrue(result.hasNext());
+    }
+
     @Test
     public void findByIdShouldReturnObjectWhenIdExists() {
 
@@ -1,16 +1,36 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.EmployeeDTO;
 import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.factories.DepartmentFactory;
 import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
+import com.example.spring.models.Enterprise;
 import com.example.spring.repositories.DepartmentRepository;
+import com.example.spring.repositories.EmployeeRepository;
+import com.example.spring.services.exceptions.PreconditionFailedException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +43,22 @@ public class DepartmentServiceIntegrationTests {
     private DepartmentService departmentService;
     @Autowired
     private DepartmentRepository departmentRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private QueryResultCache queryResultCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
     private Long existingId;
     private Long nonExistingId;
     private long countTotalDepartments;
@@ -31,6 +67,8 @@ public class DepartmentServiceIntegrationTests {
 
     @BeforeEach
     void setUp() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
         existingId = 1L;
         nonExistingId = 99L;
         countTotalDepartments = 3L;
@@ -42,11 +80,73 @@ public class DepartmentServiceIntegrationTests {
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<DepartmentDTO> result = departmentService.findAll();
+        CursorPageDTO<DepartmentDTO> result = departmentService.findAll(null, null);
+
+        // Assert
+        Assertions.assertFalse(result.getContent().isEmpty());
+        Assertions.assertEquals(result.getContent().size(), departmentRepository.count());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void findAllShouldNotLoadManagedEntities() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        departmentService.findAll(null, null);
 
         // Assert
-        Assertions.assertFalse(result.isEmpty());
-        Assertions.assertEquals(result.size(), departmentRepository.count());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllShouldReturnNextCursorWhenMoreRowsExist() {
+
+        // Act
+        CursorPageDTO<DepartmentDTO> firstPage = departmentService.findAll(null, 2);
+        CursorPageDTO<DepartmentDTO> secondPage = departmentService.findAll(firstPage.getNextCursor(), 2);
+
+        // Assert
+        Assertions.assertEquals(2, firstPage.getContent().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+        Assertions.assertEquals(countTotalDepartments - 2, secondPage.getContent().size());
+        Assertions.assertTrue(secondPage.getContent().get(0).getId() > firstPage.getContent().get(1).getId());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    public void findAllShouldServeRepeatedPageWithoutQuerying() {
+
+        // Arrange
+        departmentService.findAll(null, null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        CursorPageDTO<DepartmentDTO> result = departmentService.findAll(null, null);
+
+        // Assert
+        Assertions.assertEquals(countTotalDepartments, result.getContent().size());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllShouldNotServeCachedPageAfterWrite() {
+
+        // Arrange
+        departmentService.findAll(null, null);
+        departmentDTO.setName("Research");
+
+        // Act
+        departmentService.update(existingId, departmentDTO, null);
+        CursorPageDTO<DepartmentDTO> result = departmentService.findAll(null, null);
+
+        // Assert
+        Assertions.assertEquals("Research", result.getContent().get(0).getName());
     }
 
     @Test
@@ -59,6 +159,146 @@ public class DepartmentServiceIntegrationTests {
         Assertions.assertEquals(departmentDTO.getName(), result.getName());
     }
 
+    @Test
+    public void findByIdShouldRunSingleStatementRegardlessOfEmployeesCount() {
+
+        // Arrange
+        departmentDTO.getEmployees().clear();
+        departmentDTO.getEmployees().add(new EmployeeDTO(1L, "Lorem", "Ipsum", 33, "Product Owner", "lorem1@spring.com"));
+        departmentDTO.getEmployees().add(new EmployeeDTO(2L, "Lorem", "Ipsum", 33, "Product Owner", "lorem2@spring.com"));
+        departmentDTO.getEmployees().add(new EmployeeDTO(3L, "Lorem", "Ipsum", 33, "Product Owner", "lorem3@spring.com"));
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        DepartmentDTO result = departmentService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals(3, result.getEmployees().size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByIdWithEnterpriseShouldSummariseEnterpriseWhenDepartmentBelongsToOne() {
+
+        // Arrange
+        Enterprise enterprise = linkToEnterprise(2L);
+
+        // Act
+        DepartmentDTO result = departmentService.findByIdWithEnterprise(existingId);
+
+        // Assert
+        Assertions.assertEquals(enterprise.getId(), result.getEnterprise().getId());
+        Assertions.assertEquals(enterprise.getName(), result.getEnterprise().getName());
+        JsonNode json = objectMapper.valueToTree(result);
+        Assertions.assertEquals(2, json.get("enterprise").size());
+    }
+
+    @Test
+    public void findByIdWithEnterpriseShouldOmitEnterpriseWhenDepartmentBelongsToNone() {
+
+        // Act
+        DepartmentDTO result = departmentService.findByIdWithEnterprise(existingId);
+
+        // Assert
+        Assertions.assertNull(result.getEnterprise());
+        Assertions.assertFalse(objectMapper.valueToTree(result).has("enterprise"));
+    }
+
+    @Test
+    public void findByIdShouldNotLoadEnterpriseWhenDepartmentBelongsToOne() {
+
+        // Arrange
+        linkToEnterprise(2L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        DepartmentDTO result = departmentService.findById(existingId);
+
+        // Assert
+        Assertions.assertNull(result.getEnterprise());
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Enterprise.class.getName()).getLoadCount());
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Enterprise.class.getName()).getFetchCount());
+    }
+
+    @Test
+    public void findVersionTagWithEnterpriseShouldChangeWhenDepartmentMovesToAnotherEnterprise() {
+
+        // Arrange
+        linkToEnterprise(2L);
+        String before = departmentService.findVersionTagWithEnterprise(existingId);
+        Enterprise enterprise = entityManager.find(Enterprise.class, 2L);
+        enterprise.getDepartments().removeIf(d -> d.getId().equals(existingId));
+        linkToEnterprise(3L);
+
+        // Act
+        String after = departmentService.findVersionTagWithEnterprise(existingId);
+
+        // Assert
+        Assertions.assertNotEquals(before, after);
+    }
+
+    @Test
+    public void findByIdShouldServeRepeatedLookupsFromCache() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        DepartmentDTO first = departmentService.findById(existingId);
+        DepartmentDTO second = departmentService.findById(existingId);
+
+        // Assert
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateShouldEvictCachedEntry() {
+
+        // Arrange
+        departmentService.findById(existingId);
+        departmentDTO.setName("Renamed");
+
+        // Act
+        departmentService.update(existingId, departmentDTO, null);
+        DepartmentDTO result = departmentService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals("Renamed", result.getName());
+    }
+
+    @Test
+    public void findByIdShouldRecordServiceTimer() {
+
+        // Act
+        departmentService.findById(existingId);
+        Timer timer = meterRegistry.find("service.calls")
+                .tag("class", DepartmentService.class.getName())
+                .tag("method", "findById")
+                .timer();
+
+        // Assert
+        Assertions.assertNotNull(timer);
+        Assertions.assertTrue(timer.count() > 0);
+        Assertions.assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+    }
+
+    @Test
+    public void findByIdShouldCarryVersionTagOfRepresentation() {
+
+        // Act
+        DepartmentDTO result = departmentService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals(departmentService.findVersionTag(existingId), result.getVersionTag());
+    }
+
     @Test
     public void findByIdShouldThrowResourceNotFoundExceptionWhenIdDoesNotExists() {
 
@@ -68,6 +308,50 @@ public class DepartmentServiceIntegrationTests {
         });
     }
 
+    @Test
+    public void findVersionTagShouldNotLoadEntities() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        String result = departmentService.findVersionTag(existingId);
+
+        // Assert
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findVersionTagShouldChangeWhenMemberEmployeeIsUpdated() {
+
+        // Arrange
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+        String before = departmentService.findVersionTag(existingId);
+
+        // Act
+        entityManager.find(Employee.class, 1L).setPosition("Staff Engineer");
+        entityManager.flush();
+        String after = departmentService.findVersionTag(existingId);
+
+        // Assert
+        Assertions.assertNotEquals(before, after);
+        Assertions.assertEquals(after, departmentService.findVersionTag(existingId));
+    }
+
+    @Test
+    public void findVersionTagShouldThrowResourceNotFoundExceptionWhenIdDoesNotExists() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            departmentService.findVersionTag(nonExistingId);
+        });
+    }
+
     @Test
     public void insertShouldReturnDepartmentDTOCreated() {
 
@@ -84,7 +368,7 @@ public class DepartmentServiceIntegrationTests {
     public void updateShouldReturnDepartmentDTOWhenIdExists() {
 
         // Act
-        departmentService.update(department.getId(), departmentDTO);
+        departmentService.update(department.getId(), departmentDTO, null);
         Optional<Department> result = departmentRepository.findById(department.getId());
 
         // Assert
@@ -92,6 +376,122 @@ public class DepartmentServiceIntegrationTests {
         Assertions.assertEquals(departmentDTO.getName(), result.get().getName());
     }
 
+    @Test
+    public void updateShouldApplyChangesWhenIfMatchIsCurrent() {
+
+        // Arrange
+        String eTag = departmentService.findVersionTag(existingId);
+        departmentDTO.setName("Renamed");
+
+        // Act
+        departmentService.update(existingId, departmentDTO, eTag);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals("Renamed", departmentRepository.findById(existingId).get().getName());
+        Assertions.assertNotEquals(eTag, departmentService.findVersionTag(existingId));
+    }
+
+    @Test
+    public void updateShouldApplyChangesWhenIfMatchIsTagOfCborRepresentation() {
+
+        // Arrange
+        String eTag = departmentService.findVersionTag(existingId);
+        String cborTag = eTag.substring(0, eTag.length() - 1) + "-cbor\"";
+        departmentDTO.setName("Renamed");
+
+        // Act
+        departmentService.update(existingId, departmentDTO, cborTag);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals("Renamed", departmentRepository.findById(existingId).get().getName());
+    }
+
+    @Test
+    public void updateShouldThrowPreconditionFailedExceptionWhenIfMatchIsStale() {
+
+        // Arrange
+        String eTag = departmentService.findVersionTag(existingId);
+        departmentService.update(existingId, departmentDTO, eTag);
+        entityManager.flush();
+
+        // Act & Assert
+        Assertions.assertThrows(PreconditionFailedException.class, () -> {
+            departmentService.update(existingId, departmentDTO, eTag);
+        });
+    }
+
+    @Test
+    public void updateShouldAssignEveryReferencedEmployee() {
+
+        // Arrange
+        departmentDTO.getEmployees().add(new EmployeeDTO(2L, "Lorem", "Ipsum", 33, "Product Owner", "lorem2@spring.com"));
+        departmentDTO.getEmployees().add(new EmployeeDTO(3L, "Lorem", "Ipsum", 33, "Product Owner", "lorem3@spring.com"));
+
+        // Act
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+        entityManager.clear();
+        Department result = departmentRepository.findWithEmployeesById(existingId).get();
+
+        // Assert
+        Assertions.assertEquals(3, result.getEmployees().size());
+    }
+
+    @Test
+    public void updateShouldWriteOnlyTheChangedMembershipRow() {
+
+        // Arrange
+        departmentDTO.getEmployees().add(new EmployeeDTO(2L, "Lorem", "Ipsum", 33, "Product Owner", "lorem2@spring.com"));
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+        entityManager.clear();
+        departmentDTO.getEmployees().add(new EmployeeDTO(3L, "Lorem", "Ipsum", 33, "Product Owner", "lorem3@spring.com"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getCollectionRecreateCount());
+        Assertions.assertEquals(1, statistics.getCollectionUpdateCount());
+        Assertions.assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateShouldThrowResourceNotFoundExceptionListingUnknownEmployeeIds() {
+
+        // Arrange
+        departmentDTO.getEmployees().add(new EmployeeDTO(98L, "Lorem", "Ipsum", 33, "Product Owner", "lorem98@spring.com"));
+        departmentDTO.getEmployees().add(new EmployeeDTO(nonExistingId, "Lorem", "Ipsum", 33, "Product Owner", "lorem99@spring.com"));
+
+        // Act & Assert
+        ResourceNotFoundException e = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            departmentService.update(existingId, departmentDTO, null);
+        });
+        Assertions.assertEquals("Employees with ids [98, 99] not found", e.getMessage());
+    }
+
+    @Test
+    public void patchShouldReplaceEmployeesWhenSupplied() throws JsonProcessingException {
+
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"employees\": [{\"id\": 2}, {\"id\": 3}]}");
+
+        // Act
+        departmentService.patch(existingId, patch, null);
+        entityManager.flush();
+        entityManager.clear();
+        Department result = departmentRepository.findWithEmployeesById(existingId).get();
+
+        // Assert
+        Assertions.assertEquals(2, result.getEmployees().size());
+        Assertions.assertEquals("IT", result.getName());
+    }
+
     @Test
     public void deleteShouldDeleteObjectWhenIdExists() {
 
@@ -110,4 +510,115 @@ public class DepartmentServiceIntegrationTests {
             departmentService.delete(nonExistingId);
         });
     }
+
+    @Test
+    public void deleteShouldRemoveLinksWithoutLoadingTheEntity() {
+
+        // Arrange
+        departmentService.update(existingId, departmentDTO, null);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        departmentService.delete(existingId);
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(4, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(countTotalDepartments - 1, departmentRepository.count());
+    }
+
+    @Test
+    public void findByIdShouldBeServedFromSecondLevelCacheInNewPersistenceContext() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        countEmployeesInNewPersistenceContext(2L);
+        statistics.clear();
+
+        // Act
+        int result = countEmployeesInNewPersistenceContext(2L);
+
+        // Assert
+        Assertions.assertEquals(0, result);
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void patchShouldInvalidateCachedEmployeesWhenCommitted() throws JsonProcessingException {
+
+        // Arrange
+        Long departmentId = 3L;
+        countEmployeesInNewPersistenceContext(departmentId);
+
+        try {
+            // Act
+            departmentService.patch(departmentId, objectMapper.readTree("{\"employees\":[{\"id\":1}]}"), null);
+
+            // Assert
+            Assertions.assertEquals(1, countEmployeesInNewPersistenceContext(departmentId));
+        } finally {
+            departmentService.patch(departmentId, objectMapper.readTree("{\"employees\":[]}"), null);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void linkDeletesShouldOnlyInvalidateCacheRegionsOfTheirJoinTable() {
+
+        // Arrange
+        Cache cache = entityManagerFactory.getCache();
+        loadInNewPersistenceContext(Employee.class, 1L);
+        loadInNewPersistenceContext(Department.class, 2L);
+        loadInNewPersistenceContext(Enterprise.class, 1L);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> employeeRepository.deleteDepartmentLinks(List.of(nonExistingId)));
+
+        // Assert
+        Assertions.assertTrue(cache.contains(Employee.class, 1L));
+        Assertions.assertTrue(cache.contains(Department.class, 2L));
+        Assertions.assertTrue(cache.contains(Enterprise.class, 1L));
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.deleteEnterpriseLinks(List.of(nonExistingId)));
+
+        // Assert
+        Assertions.assertTrue(cache.contains(Employee.class, 1L));
+        Assertions.assertFalse(cache.contains(Department.class, 2L));
+        Assertions.assertTrue(cache.contains(Enterprise.class, 1L));
+    }
+
+    private void loadInNewPersistenceContext(Class<?> entityClass, Long id) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.find(entityClass, id);
+        } finally {
+            em.close();
+        }
+    }
+
+    // a cached entry is only readable by sessions opened after it was put, so each load gets its own
+    private int countEmployeesInNewPersistenceContext(Long id) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return em.find(Department.class, id).getEmployees().size();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Enterprise linkToEnterprise(Long enterpriseId) {
+        Enterprise enterprise = entityManager.find(Enterprise.class, enterpriseId);
+        enterprise.getDepartments().add(entityManager.find(Department.class, existingId));
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evict(Department.class, existingId);
+
+        return enterprise;
+    }
 }
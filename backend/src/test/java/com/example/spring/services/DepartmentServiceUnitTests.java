@@ -1,10 +1,12 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.factories.DepartmentFactory;
 import com.example.spring.models.Department;
 import com.example.spring.repositories.DepartmentRepository;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Collections;
@@ -28,6 +32,12 @@ public class DepartmentServiceUnitTests {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private TextIndex textIndex;
+
+    @Spy
+    private QueryResultCache queryResultCache = new QueryResultCache(new SimpleMeterRegistry(), 100);
+
     private long existingId;
     private long nonExistingId;
     private Department department;
@@ -40,30 +50,34 @@ public class DepartmentServiceUnitTests {
         department = DepartmentFactory.createDepartment();
         departmentDTO = DepartmentFactory.createDepartmentDTO();
 
-        Mockito.when(departmentRepository.findAll()).thenReturn(Collections.singletonList(department));
+        Mockito.when(departmentRepository.findDTOByIdGreaterThan(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(departmentDTO)));
 
         Mockito.when(departmentRepository.findById(existingId)).thenReturn(Optional.of(department));
         Mockito.when(departmentRepository.findById(nonExistingId)).thenReturn(Optional.empty());
+        Mockito.when(departmentRepository.findWithEmployeesById(existingId)).thenReturn(Optional.of(department));
+        Mockito.when(departmentRepository.findWithEmployeesById(nonExistingId)).thenReturn(Optional.empty());
 
         Mockito.when(departmentRepository.save(ArgumentMatchers.any(Department.class))).thenReturn(department);
 
         Mockito.when(departmentRepository.getReferenceById(existingId)).thenReturn(department);
         Mockito.when(departmentRepository.getReferenceById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
-        Mockito.doNothing().when(departmentRepository).deleteById(existingId);
-        Mockito.doThrow(ResourceNotFoundException.class).when(departmentRepository).deleteById(nonExistingId);
+        Mockito.when(departmentRepository.bulkDeleteByIds(List.of(existingId))).thenReturn(1);
+        Mockito.when(departmentRepository.bulkDeleteByIds(List.of(nonExistingId))).thenReturn(0);
     }
 
     @Test
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<DepartmentDTO> result = departmentService.findAll();
+        CursorPageDTO<DepartmentDTO> result = departmentService.findAll(null, null);
 
         // Assert
         Assertions.assertNotNull(result);
 
-        Mockito.verify(departmentRepository, Mockito.times(1)).findAll();
+        Mockito.verify(departmentRepository, Mockito.times(1))
+                .findDTOByIdGreaterThan(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
 
     }
 
@@ -85,7 +99,7 @@ public class DepartmentServiceUnitTests {
             departmentService.findById(nonExistingId);
         });
 
-        Mockito.verify(departmentRepository, Mockito.times(1)).findById(nonExistingId);
+        Mockito.verify(departmentRepository, Mockito.times(1)).findWithEmployeesById(nonExistingId);
     }
 
 //    @Test
@@ -122,7 +136,7 @@ public class DepartmentServiceUnitTests {
 
         // Act & Assert
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
-            departmentService.update(nonExistingId, departmentDTO);
+            departmentService.update(nonExistingId, departmentDTO, null);
         });
 
         Mockito.verify(departmentRepository, Mockito.times(1)).getReferenceById(nonExistingId);
@@ -138,6 +152,16 @@ public class DepartmentServiceUnitTests {
             departmentService.delete(existingId);
         });
 
-        Mockito.verify(departmentRepository, Mockito.times(1)).deleteById(existingId);
+        Mockito.verify(departmentRepository, Mockito.times(1)).bulkDeleteByIds(List.of(existingId));
+        Mockito.verify(textIndex, Mockito.times(1)).removeAll(TextIndex.DEPARTMENT, List.of(existingId));
+    }
+
+    @Test
+    public void deleteShouldThrowResourceNotFoundExceptionWhenNoRowIsDeleted() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            departmentService.delete(nonExistingId);
+        });
     }
 }
@@ -1,17 +1,37 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.dto.EmployeeDTO;
+import com.example.spring.dto.EmployeeFilterDTO;
 import com.example.spring.factories.EmployeeFactory;
+import com.example.spring.models.Department;
 import com.example.spring.models.Employee;
 import com.example.spring.repositories.EmployeeRepository;
+import com.example.spring.services.exceptions.InvalidIdsException;
+import com.example.spring.services.exceptions.InvalidPatchException;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +43,16 @@ public class EmployeeServiceIntegrationTests {
     private EmployeeService employeeService;
     @Autowired
     private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private QueryResultCache queryResultCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
     private Long existingId;
     private Long nonExistingId;
     private long countTotalEmployees;
@@ -31,6 +61,8 @@ public class EmployeeServiceIntegrationTests {
 
     @BeforeEach
     void setUp() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        queryResultCache.invalidate(QueryResultCache.EMPLOYEES);
         existingId = 1L;
         nonExistingId = 99L;
         countTotalEmployees = 3L;
@@ -42,11 +74,193 @@ public class EmployeeServiceIntegrationTests {
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<EmployeeDTO> result = employeeService.findAll();
+        CursorPageDTO<EmployeeDTO> result = employeeService.findAll(null, null);
+
+        // Assert
+        Assertions.assertFalse(result.getContent().isEmpty());
+        Assertions.assertEquals(result.getContent().size(), employeeRepository.count());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void searchShouldCombineFilters() {
+
+        // Arrange
+        employeeRepository.saveAll(List.of(
+                new Employee(null, "John", "Crud", 33, "Backend Developer", "john.crud@spring.com"),
+                new Employee(null, "Jane", "Crane", 41, "Backend Developer", "jane.crane@spring.com"),
+                new Employee(null, "Jack", "Crud", 25, "Backend Developer", "jack.crud@spring.com"),
+                new Employee(null, "Jill", "Crud", 35, "Frontend Developer", "jill.crud@spring.com")));
+        EmployeeFilterDTO filter = new EmployeeFilterDTO("Cr", "Backend Developer", null, 30, 45);
+
+        // Act
+        CursorPageDTO<EmployeeDTO> result = employeeService.search(filter, "age", null, null);
+
+        // Assert
+        Assertions.assertEquals(List.of("John", "Jane"),
+                result.getContent().stream().map(EmployeeDTO::getFirstName).toList());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void searchShouldVisitEveryRowOnceWhenPagingDescendingBySortKeyWithNulls() {
+
+        // Arrange
+        employeeRepository.saveAll(List.of(
+                new Employee(null, "John", "Crud", 33, "Backend Developer", "john.crud@spring.com"),
+                new Employee(null, "Jane", "Crud", 41, "Backend Developer", "jane.crud@spring.com"),
+                new Employee(null, "Jack", "Abbot", 25, "Backend Developer", "jack.abbot@spring.com"),
+                new Employee(null, "Jill", "Zane", 35, "Frontend Developer", "jill.zane@spring.com")));
+        List<String> lastNames = new ArrayList<>();
+        String cursor = null;
+
+        // Act
+        do {
+            CursorPageDTO<EmployeeDTO> page = employeeService.search(new EmployeeFilterDTO(), "lastName,desc", cursor, 2);
+            page.getContent().forEach(dto -> lastNames.add(dto.getLastName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        Assertions.assertEquals(countTotalEmployees + 4, lastNames.size());
+        Assertions.assertTrue(lastNames.subList(0, (int) countTotalEmployees).stream().allMatch(name -> name == null));
+        Assertions.assertEquals(List.of("Zane", "Crud", "Crud", "Abbot"), lastNames.subList((int) countTotalEmployees, lastNames.size()));
+    }
+
+    @Test
+    public void searchShouldVisitEveryRowOnceWhenPagingAscendingBySortKeyWithNulls() {
+
+        // Arrange
+        employeeRepository.saveAll(List.of(
+                new Employee(null, "John", "Crud", 33, "Backend Developer", "john.crud@spring.com"),
+                new Employee(null, "Jane", "Crud", 41, "Backend Developer", "jane.crud@spring.com"),
+                new Employee(null, "Jack", "Abbot", 25, "Backend Developer", "jack.abbot@spring.com"),
+                new Employee(null, "Jill", "Zane", 35, "Frontend Developer", "jill.zane@spring.com")));
+        List<String> lastNames = new ArrayList<>();
+        String cursor = null;
+
+        // Act
+        do {
+            CursorPageDTO<EmployeeDTO> page = employeeService.search(new EmployeeFilterDTO(), "lastName", cursor, 2);
+            page.getContent().forEach(dto -> lastNames.add(dto.getLastName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        Assertions.assertEquals(countTotalEmployees + 4, lastNames.size());
+        Assertions.assertEquals(List.of("Abbot", "Crud", "Crud", "Zane"), lastNames.subList(0, 4));
+        Assertions.assertTrue(lastNames.subList(4, lastNames.size()).stream().allMatch(name -> name == null));
+    }
+
+    @Test
+    public void searchFiltersShouldBeServedByIndexes() {
+
+        // Arrange
+        List<String> filters = List.of("last_name LIKE 'Cr%'", "position = 'Director'",
+                "email = 'john.crud@spring.com'", "age BETWEEN 30 AND 40");
+
+        // Act
+        List<String> plans = filters.stream()
+                .map(filter -> entityManager.createNativeQuery("EXPLAIN SELECT * FROM employees WHERE " + filter)
+                        .getSingleResult().toString().toLowerCase())
+                .toList();
 
         // Assert
-        Assertions.assertFalse(result.isEmpty());
-        Assertions.assertEquals(result.size(), employeeRepository.count());
+        Assertions.assertTrue(plans.get(0).contains("ix_employees_last_name"));
+        Assertions.assertTrue(plans.get(1).contains("ix_employees_position"));
+        Assertions.assertTrue(plans.get(2).contains("ux_employees_email"));
+        Assertions.assertTrue(plans.get(3).contains("ix_employees_age"));
+    }
+
+    @Test
+    public void insertShouldThrowDataIntegrityViolationExceptionWhenEmailIsTaken() {
+
+        // Arrange
+        employeeService.insert(employeeDTO);
+        employeeDTO.setId(null);
+
+        // Act & Assert
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeService.insert(employeeDTO);
+            employeeRepository.flush();
+        });
+    }
+
+    @Test
+    public void findAllShouldNotLoadManagedEntities() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        employeeService.findAll(null, null);
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllShouldReturnNextCursorWhenMoreRowsExist() {
+
+        // Act
+        CursorPageDTO<EmployeeDTO> firstPage = employeeService.findAll(null, 2);
+        CursorPageDTO<EmployeeDTO> secondPage = employeeService.findAll(firstPage.getNextCursor(), 2);
+
+        // Assert
+        Assertions.assertEquals(2, firstPage.getContent().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+        Assertions.assertEquals(countTotalEmployees - 2, secondPage.getContent().size());
+        Assertions.assertTrue(secondPage.getContent().get(0).getId() > firstPage.getContent().get(1).getId());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    public void exportShouldWriteOneNdjsonLinePerEmployee() throws IOException {
+
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        employeeService.export(ExportFormat.NDJSON, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        // Assert
+        Assertions.assertEquals(countTotalEmployees, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"id\":1,\"firstName\":\"John\""));
+    }
+
+    @Test
+    public void exportShouldNotPutRowsIntoSecondLevelCache() throws IOException {
+
+        // Arrange
+        entityManagerFactory.getCache().evict(Employee.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        employeeService.export(ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getSecondLevelCachePutCount());
+        Assertions.assertFalse(entityManagerFactory.getCache().contains(Employee.class, existingId));
+    }
+
+    @Test
+    public void exportShouldWriteCsvHeaderAndOneRowPerEmployee() throws IOException {
+
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        employeeService.export(ExportFormat.CSV, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        // Assert
+        Assertions.assertEquals(countTotalEmployees + 1, lines.length);
+        Assertions.assertEquals("id,firstName,lastName,age,position,email", lines[0]);
+        Assertions.assertEquals("1,John,,,Backend Developer,", lines[1]);
     }
 
     @Test
@@ -82,11 +296,59 @@ public class EmployeeServiceIntegrationTests {
         Assertions.assertEquals(employeeDTO.getPosition(), result.get().getPosition());
     }
 
+    @Test
+    public void insertAllShouldPersistEveryEmployeeInJdbcBatches() {
+
+        // Arrange
+        List<EmployeeDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            dtos.add(new EmployeeDTO(null, "John", "Crud", 33, "Backend Developer", "john.crud" + i + "@spring.com"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<EmployeeDTO> result = employeeService.insertAll(dtos);
+        employeeRepository.flush();
+
+        // Assert
+        Assertions.assertEquals(100, result.size());
+        Assertions.assertTrue(result.stream().allMatch(dto -> dto.getId() != null));
+        Assertions.assertEquals(countTotalEmployees + 100, employeeRepository.count());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10);
+    }
+
+    @Test
+    public void insertAllShouldLinkDepartmentsWithoutStatementsPerEmployee() {
+
+        // Arrange
+        List<EmployeeDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            EmployeeDTO dto = new EmployeeDTO(null, "John", "Crud", 33, "Backend Developer", "john.crud" + i + "@spring.com");
+            dto.getDepartments().add(new DepartmentDTO(1L, null, null, null));
+            dto.getDepartments().add(new DepartmentDTO(2L, null, null, null));
+            dtos.add(dto);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<EmployeeDTO> result = employeeService.insertAll(dtos);
+        employeeRepository.flush();
+
+        // Assert
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10);
+        Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+        Assertions.assertEquals(List.of(1L, 2L), findLinkedDepartmentIds(result.get(99).getId()));
+        Assertions.assertEquals(200L, ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM departments_employees").getSingleResult()).longValue());
+    }
+
     @Test
     public void updateShouldReturnEmployeeDTOWhenIdExists() {
 
         // Act
-        employeeService.update(employee.getId(), employeeDTO);
+        employeeService.update(employee.getId(), employeeDTO, null);
         Optional<Employee> result = employeeRepository.findById(employee.getId());
 
         // Assert
@@ -95,6 +357,114 @@ public class EmployeeServiceIntegrationTests {
         Assertions.assertEquals(employeeDTO.getPosition(), result.get().getPosition());
     }
 
+    @Test
+    public void updateShouldWriteDepartmentMembershipToJoinTable() {
+
+        // Arrange
+        employeeDTO.getDepartments().add(new DepartmentDTO(2L, null, null, null));
+        employeeDTO.getDepartments().add(new DepartmentDTO(3L, null, null, null));
+
+        // Act
+        employeeService.update(existingId, employeeDTO, null);
+        entityManager.flush();
+        employeeDTO.getDepartments().removeIf(department -> department.getId().equals(2L));
+        employeeService.update(existingId, employeeDTO, null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(List.of(3L), findLinkedDepartmentIds(existingId));
+    }
+
+    @Test
+    public void patchShouldUpdateOnlySuppliedFieldsWithoutLoadingDepartments() throws JsonProcessingException {
+
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"email\": \"john@spring.com\"}");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        employeeService.patch(existingId, patch, null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(1, statistics.getEntityUpdateCount());
+        Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+        entityManager.clear();
+        Employee result = employeeRepository.findById(existingId).get();
+        Assertions.assertEquals("john@spring.com", result.getEmail());
+        Assertions.assertEquals("John", result.getFirstName());
+        Assertions.assertEquals("Backend Developer", result.getPosition());
+    }
+
+    @Test
+    public void patchShouldWriteDepartmentMembershipToJoinTable() throws JsonProcessingException {
+
+        // Act
+        employeeService.patch(existingId, objectMapper.readTree("{\"departments\":[{\"id\":2}]}"), null);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        Assertions.assertEquals(List.of(2L), findLinkedDepartmentIds(existingId));
+
+        // Act
+        employeeService.patch(existingId, objectMapper.readTree("{\"departments\":[]}"), null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(List.of(), findLinkedDepartmentIds(existingId));
+    }
+
+    @Test
+    public void patchShouldNotLoadDepartmentMembersWhenMembershipChanges() throws JsonProcessingException {
+
+        // Arrange
+        entityManager.createNativeQuery("INSERT INTO departments_employees(department_id, employee_id) "
+                + "VALUES (1, 2), (1, 3)").executeUpdate();
+        JsonNode patch = objectMapper.readTree("{\"departments\":[{\"id\":1}]}");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        employeeService.patch(existingId, patch, null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getCollectionStatistics(Department.class.getName() + ".employees").getLoadCount());
+        Assertions.assertEquals(List.of(1L), findLinkedDepartmentIds(existingId));
+        Assertions.assertEquals(3L, ((Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM departments_employees WHERE department_id = 1").getSingleResult()).longValue());
+    }
+
+    @Test
+    public void patchShouldNotUpdateRowWhenValuesAreUnchanged() throws JsonProcessingException {
+
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"firstName\": \"John\"}");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        employeeService.patch(existingId, patch, null);
+        entityManager.flush();
+
+        // Assert
+        Assertions.assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    public void patchShouldThrowInvalidPatchExceptionWhenFieldHasWrongType() throws JsonProcessingException {
+
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"age\": \"thirty\"}");
+
+        // Act & Assert
+        Assertions.assertThrows(InvalidPatchException.class, () -> {
+            employeeService.patch(existingId, patch, null);
+        });
+    }
+
     @Test
     public void deleteShouldDeleteObjectWhenIdExists() {
 
@@ -113,4 +483,46 @@ public class EmployeeServiceIntegrationTests {
             employeeService.delete(nonExistingId);
         });
     }
+
+    @Test
+    public void deleteAllShouldDeleteRowsAndTheirDepartmentLinks() {
+
+        // Arrange
+        entityManager.createNativeQuery("INSERT INTO departments_employees(department_id, employee_id) "
+                + "VALUES (1, 1), (1, 2), (3, 3)").executeUpdate();
+
+        // Act
+        employeeService.deleteAll(List.of(existingId, 2L, nonExistingId));
+
+        // Assert
+        Assertions.assertEquals(countTotalEmployees - 2, employeeRepository.count());
+        Assertions.assertEquals(1L, ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM departments_employees").getSingleResult()).longValue());
+    }
+
+    @Test
+    public void deleteAllShouldThrowResourceNotFoundExceptionWhenNoIdExists() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            employeeService.deleteAll(List.of(nonExistingId));
+        });
+    }
+
+    @Test
+    public void deleteAllShouldThrowInvalidIdsExceptionWhenIdsAreEmpty() {
+
+        // Act & Assert
+        Assertions.assertThrows(InvalidIdsException.class, () -> {
+            employeeService.deleteAll(List.of());
+        });
+        Assertions.assertEquals(countTotalEmployees, employeeRepository.count());
+    }
+
+    private List<Long> findLinkedDepartmentIds(Long employeeId) {
+        List<?> rows = entityManager.createNativeQuery("SELECT department_id FROM departments_employees "
+                + "WHERE employee_id = :id ORDER BY department_id").setParameter("id", employeeId).getResultList();
+
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
 }
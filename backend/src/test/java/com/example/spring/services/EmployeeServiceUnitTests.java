@@ -1,10 +1,12 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EmployeeDTO;
 import com.example.spring.factories.EmployeeFactory;
 import com.example.spring.models.Employee;
 import com.example.spring.repositories.EmployeeRepository;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Collections;
@@ -28,6 +32,9 @@ public class EmployeeServiceUnitTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Spy
+    private QueryResultCache queryResultCache = new QueryResultCache(new SimpleMeterRegistry(), 100);
+
     private long existingId;
     private long nonExistingId;
     private Employee employee;
@@ -40,7 +47,8 @@ public class EmployeeServiceUnitTests {
         employee = EmployeeFactory.createEmployee();
         employeeDTO = EmployeeFactory.createEmployeeDTO();
 
-        Mockito.when(employeeRepository.findAll()).thenReturn(Collections.singletonList(employee));
+        Mockito.when(employeeRepository.findDTOByIdGreaterThan(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(employeeDTO)));
 
         Mockito.when(employeeRepository.findById(existingId)).thenReturn(Optional.of(employee));
         Mockito.when(employeeRepository.findById(nonExistingId)).thenReturn(Optional.empty());
@@ -50,20 +58,21 @@ public class EmployeeServiceUnitTests {
         Mockito.when(employeeRepository.getReferenceById(existingId)).thenReturn(employee);
         Mockito.when(employeeRepository.getReferenceById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
-        Mockito.doNothing().when(employeeRepository).deleteById(existingId);
-        Mockito.doThrow(ResourceNotFoundException.class).when(employeeRepository).deleteById(nonExistingId);
+        Mockito.when(employeeRepository.bulkDeleteByIds(List.of(existingId))).thenReturn(1);
+        Mockito.when(employeeRepository.bulkDeleteByIds(List.of(nonExistingId))).thenReturn(0);
     }
 
     @Test
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<EmployeeDTO> result = employeeService.findAll();
+        CursorPageDTO<EmployeeDTO> result = employeeService.findAll(null, null);
 
         // Assert
         Assertions.assertNotNull(result);
 
-        Mockito.verify(employeeRepository, Mockito.times(1)).findAll();
+        Mockito.verify(employeeRepository, Mockito.times(1))
+                .findDTOByIdGreaterThan(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
 
     }
 
@@ -106,7 +115,7 @@ public class EmployeeServiceUnitTests {
     @Test
     public void updateShouldReturnEmployeeDTOWhenIdExists() {
         // Act
-        EmployeeDTO result = employeeService.update(existingId, employeeDTO);
+        EmployeeDTO result = employeeService.update(existingId, employeeDTO, null);
 
         // Assert
         Assertions.assertEquals(employee.getId(), result.getId());
@@ -122,7 +131,7 @@ public class EmployeeServiceUnitTests {
 
         // Act & Assert
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
-            employeeService.update(nonExistingId, employeeDTO);
+            employeeService.update(nonExistingId, employeeDTO, null);
         });
 
         Mockito.verify(employeeRepository, Mockito.times(1)).getReferenceById(nonExistingId);
@@ -138,6 +147,15 @@ public class EmployeeServiceUnitTests {
             employeeService.delete(existingId);
         });
 
-        Mockito.verify(employeeRepository, Mockito.times(1)).deleteById(existingId);
+        Mockito.verify(employeeRepository, Mockito.times(1)).bulkDeleteByIds(List.of(existingId));
+    }
+
+    @Test
+    public void deleteShouldThrowResourceNotFoundExceptionWhenNoRowIsDeleted() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            employeeService.delete(nonExistingId);
+        });
     }
 }
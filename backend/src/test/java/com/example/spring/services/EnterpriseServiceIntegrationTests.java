@@ -1,28 +1,67 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
+import com.example.spring.dto.DepartmentDTO;
 import com.example.spring.dto.EnterpriseDTO;
 import com.example.spring.factories.EnterpriseFactory;
+import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
 import com.example.spring.models.Enterprise;
 import com.example.spring.repositories.EnterpriseRepository;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
+// the @SpyBean forces a separate application context; give it its own in-memory database so its
+// schema creation does not reset the sequences another cached context is still allocating from, and
+// its own second-level cache regions since the JCache manager is shared per configuration URI
 @SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enterprise-tests",
+        "spring.jpa.properties.hibernate.cache.region_prefix=enterprise-tests",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
 @Transactional
 public class EnterpriseServiceIntegrationTests {
 
     @Autowired
     private EnterpriseService enterpriseService;
-    @Autowired
+    @SpyBean
     private EnterpriseRepository enterpriseRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private QueryResultCache queryResultCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
     private Long existingId;
     private Long nonExistingId;
     private long countTotalEnterprises;
@@ -31,6 +70,8 @@ public class EnterpriseServiceIntegrationTests {
 
     @BeforeEach
     void setUp() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        queryResultCache.invalidate(QueryResultCache.ENTERPRISES);
         existingId = 1L;
         nonExistingId = 99L;
         countTotalEnterprises = 3L;
@@ -42,11 +83,83 @@ public class EnterpriseServiceIntegrationTests {
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<EnterpriseDTO> result = enterpriseService.findAll();
+        CursorPageDTO<EnterpriseDTO> result = enterpriseService.findAll(null, null);
+
+        // Assert
+        Assertions.assertFalse(result.getContent().isEmpty());
+        Assertions.assertEquals(result.getContent().size(), enterpriseRepository.count());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void writeTreeShouldNestEmployeesUnderDepartmentsUsingThreeStatements() throws IOException {
+
+        // Arrange
+        Enterprise kojima = entityManager.find(Enterprise.class, existingId);
+        Department it = entityManager.find(Department.class, 1L);
+        Department legal = entityManager.find(Department.class, 3L);
+        it.getEmployees().add(entityManager.find(Employee.class, 2L));
+        it.getEmployees().add(entityManager.find(Employee.class, 1L));
+        kojima.getDepartments().add(legal);
+        kojima.getDepartments().add(it);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        enterpriseService.writeTree(enterpriseService.findTreeRoot(existingId), out);
+        JsonNode tree = objectMapper.readTree(out.toByteArray());
+
+        // Assert
+        Assertions.assertEquals("Kojima Productions Co.", tree.get("name").asText());
+        Assertions.assertEquals(2, tree.get("departments").size());
+        Assertions.assertEquals("IT", tree.get("departments").get(0).get("name").asText());
+        Assertions.assertEquals(1L, tree.get("departments").get(0).get("employees").get(0).get("id").asLong());
+        Assertions.assertEquals(2L, tree.get("departments").get(0).get("employees").get(1).get("id").asLong());
+        Assertions.assertEquals(0, tree.get("departments").get(1).get("employees").size());
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void findTreeRootShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            enterpriseService.findTreeRoot(nonExistingId);
+        });
+    }
+
+    @Test
+    public void findAllShouldNotLoadManagedEntities() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        enterpriseService.findAll(null, null);
 
         // Assert
-        Assertions.assertFalse(result.isEmpty());
-        Assertions.assertEquals(result.size(), enterpriseRepository.count());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllShouldReturnNextCursorWhenMoreRowsExist() {
+
+        // Act
+        CursorPageDTO<EnterpriseDTO> firstPage = enterpriseService.findAll(null, 2);
+        CursorPageDTO<EnterpriseDTO> secondPage = enterpriseService.findAll(firstPage.getNextCursor(), 2);
+
+        // Assert
+        Assertions.assertEquals(2, firstPage.getContent().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+        Assertions.assertEquals(countTotalEnterprises - 2, secondPage.getContent().size());
+        Assertions.assertTrue(secondPage.getContent().get(0).getId() > firstPage.getContent().get(1).getId());
+        Assertions.assertNull(secondPage.getNextCursor());
     }
 
     @Test
@@ -59,6 +172,85 @@ public class EnterpriseServiceIntegrationTests {
         Assertions.assertEquals(enterpriseDTO.getName(), result.getName());
     }
 
+    @Test
+    public void findByIdShouldRunSingleStatementRegardlessOfDepartmentsCount() {
+
+        // Arrange
+        enterpriseDTO.getDepartments().clear();
+        enterpriseDTO.getDepartments().add(new DepartmentDTO(1L, "IT", "Lorem ipsum dolor sit amet.", "555-555-1234"));
+        enterpriseDTO.getDepartments().add(new DepartmentDTO(2L, "IT", "Lorem ipsum dolor sit amet.", "555-555-1234"));
+        enterpriseDTO.getDepartments().add(new DepartmentDTO(3L, "IT", "Lorem ipsum dolor sit amet.", "555-555-1234"));
+        enterpriseService.update(existingId, enterpriseDTO, null);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        EnterpriseDTO result = enterpriseService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals(3, result.getDepartments().size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByIdShouldServeRepeatedLookupsFromCache() {
+
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        EnterpriseDTO first = enterpriseService.findById(existingId);
+        EnterpriseDTO second = enterpriseService.findById(existingId);
+
+        // Assert
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateShouldEvictCachedEntry() {
+
+        // Arrange
+        enterpriseService.findById(existingId);
+        enterpriseDTO.setName("Renamed");
+
+        // Act
+        enterpriseService.update(existingId, enterpriseDTO, null);
+        EnterpriseDTO result = enterpriseService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals("Renamed", result.getName());
+    }
+
+    @Test
+    public void findByIdShouldCarryVersionTagOfRepresentation() {
+
+        // Act
+        EnterpriseDTO result = enterpriseService.findById(existingId);
+
+        // Assert
+        Assertions.assertEquals(enterpriseService.findVersionTag(existingId), result.getVersionTag());
+    }
+
+    @Test
+    public void refreshByIdShouldReplaceStaleCachedEntry() {
+
+        // Arrange
+        EnterpriseDTO stale = enterpriseService.findById(existingId);
+        stale.setVersionTag("\"stale\"");
+
+        // Act
+        EnterpriseDTO refreshed = enterpriseService.refreshById(existingId);
+        EnterpriseDTO result = enterpriseService.findById(existingId);
+
+        // Assert
+        Assertions.assertSame(refreshed, result);
+        Assertions.assertEquals(enterpriseService.findVersionTag(existingId), result.getVersionTag());
+    }
+
     @Test
     public void findByIdShouldThrowResourceNotFoundExceptionWhenIdDoesNotExists() {
 
@@ -68,6 +260,21 @@ public class EnterpriseServiceIntegrationTests {
         });
     }
 
+    @Test
+    public void findVersionTagShouldChangeWhenEnterpriseIsUpdated() {
+
+        // Arrange
+        String before = enterpriseService.findVersionTag(existingId);
+
+        // Act
+        enterpriseService.update(existingId, enterpriseDTO, null);
+        entityManager.flush();
+        String after = enterpriseService.findVersionTag(existingId);
+
+        // Assert
+        Assertions.assertNotEquals(before, after);
+    }
+
     @Test
     public void insertShouldReturnEnterpriseDTOCreated() {
 
@@ -84,7 +291,7 @@ public class EnterpriseServiceIntegrationTests {
     public void updateShouldReturnEnterpriseDTOWhenIdExists() {
 
         // Act
-        enterpriseService.update(enterprise.getId(), enterpriseDTO);
+        enterpriseService.update(enterprise.getId(), enterpriseDTO, null);
         Optional<Enterprise> result = enterpriseRepository.findById(enterprise.getId());
 
         // Assert
@@ -92,6 +299,35 @@ public class EnterpriseServiceIntegrationTests {
         Assertions.assertEquals(enterpriseDTO.getName(), result.get().getName());
     }
 
+    @Test
+    public void updateShouldRetryWhenOptimisticLockFails() {
+
+        // Arrange
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(Enterprise.class, existingId))
+                .doAnswer(invocation -> invocation.getArgument(0))
+                .when(enterpriseRepository).save(ArgumentMatchers.any());
+
+        // Act
+        EnterpriseDTO result = enterpriseService.update(existingId, enterpriseDTO, null);
+
+        // Assert
+        Assertions.assertEquals(enterpriseDTO.getName(), result.getName());
+        Mockito.verify(enterpriseRepository, Mockito.times(2)).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void patchShouldClearFieldWhenValueIsNull() throws JsonProcessingException {
+
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"name\": null}");
+
+        // Act
+        EnterpriseDTO result = enterpriseService.patch(existingId, patch, null);
+
+        // Assert
+        Assertions.assertNull(result.getName());
+    }
+
     @Test
     public void deleteShouldDeleteObjectWhenIdExists() {
 
@@ -110,4 +346,36 @@ public class EnterpriseServiceIntegrationTests {
             enterpriseService.delete(nonExistingId);
         });
     }
+
+    @Test
+    public void deleteAllShouldDeleteEveryExistingRow() {
+
+        // Act
+        enterpriseService.deleteAll(List.of(existingId, 2L));
+
+        // Assert
+        Assertions.assertEquals(countTotalEnterprises - 2, enterpriseRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void patchShouldEvictCachedDepartmentsWhenMembershipChanges() throws JsonProcessingException {
+
+        // Arrange
+        Long departmentId = 3L;
+        EntityManager em = entityManagerFactory.createEntityManager();
+        em.find(Department.class, departmentId);
+        em.close();
+        Assertions.assertTrue(entityManagerFactory.getCache().contains(Department.class, departmentId));
+
+        try {
+            // Act
+            enterpriseService.patch(existingId, objectMapper.readTree("{\"departments\":[{\"id\":3}]}"), null);
+
+            // Assert
+            Assertions.assertFalse(entityManagerFactory.getCache().contains(Department.class, departmentId));
+        } finally {
+            enterpriseService.patch(existingId, objectMapper.readTree("{\"departments\":[]}"), null);
+        }
+    }
 }
@@ -1,10 +1,12 @@
 package com.example.spring.services;
 
+import com.example.spring.dto.CursorPageDTO;
 import com.example.spring.dto.EnterpriseDTO;
 import com.example.spring.factories.EnterpriseFactory;
 import com.example.spring.models.Enterprise;
 import com.example.spring.repositories.EnterpriseRepository;
 import com.example.spring.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Collections;
@@ -28,6 +32,12 @@ public class EnterpriseServiceUnitTests {
     @Mock
     private EnterpriseRepository enterpriseRepository;
 
+    @Mock
+    private TextIndex textIndex;
+
+    @Spy
+    private QueryResultCache queryResultCache = new QueryResultCache(new SimpleMeterRegistry(), 100);
+
     private long existingId;
     private long nonExistingId;
     private Enterprise enterprise;
@@ -40,30 +50,34 @@ public class EnterpriseServiceUnitTests {
         enterprise = EnterpriseFactory.createEnterprise();
         enterpriseDTO = EnterpriseFactory.createEnterpriseDTO();
 
-        Mockito.when(enterpriseRepository.findAll()).thenReturn(Collections.singletonList(enterprise));
+        Mockito.when(enterpriseRepository.findDTOByIdGreaterThan(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(enterpriseDTO)));
 
         Mockito.when(enterpriseRepository.findById(existingId)).thenReturn(Optional.of(enterprise));
         Mockito.when(enterpriseRepository.findById(nonExistingId)).thenReturn(Optional.empty());
+        Mockito.when(enterpriseRepository.findWithDepartmentsById(existingId)).thenReturn(Optional.of(enterprise));
+        Mockito.when(enterpriseRepository.findWithDepartmentsById(nonExistingId)).thenReturn(Optional.empty());
 
         Mockito.when(enterpriseRepository.save(ArgumentMatchers.any(Enterprise.class))).thenReturn(enterprise);
 
         Mockito.when(enterpriseRepository.getReferenceById(existingId)).thenReturn(enterprise);
         Mockito.when(enterpriseRepository.getReferenceById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
-        Mockito.doNothing().when(enterpriseRepository).deleteById(existingId);
-        Mockito.doThrow(ResourceNotFoundException.class).when(enterpriseRepository).deleteById(nonExistingId);
+        Mockito.when(enterpriseRepository.bulkDeleteByIds(List.of(existingId))).thenReturn(1);
+        Mockito.when(enterpriseRepository.bulkDeleteByIds(List.of(nonExistingId))).thenReturn(0);
     }
 
     @Test
     public void findAllShouldReturnObjectList() {
 
         // Act
-        List<EnterpriseDTO> result = enterpriseService.findAll();
+        CursorPageDTO<EnterpriseDTO> result = enterpriseService.findAll(null, null);
 
         // Assert
         Assertions.assertNotNull(result);
 
-        Mockito.verify(enterpriseRepository, Mockito.times(1)).findAll();
+        Mockito.verify(enterpriseRepository, Mockito.times(1))
+                .findDTOByIdGreaterThan(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
 
     }
 
@@ -85,7 +99,7 @@ public class EnterpriseServiceUnitTests {
             enterpriseService.findById(nonExistingId);
         });
 
-        Mockito.verify(enterpriseRepository, Mockito.times(1)).findById(nonExistingId);
+        Mockito.verify(enterpriseRepository, Mockito.times(1)).findWithDepartmentsById(nonExistingId);
     }
 
 //    @Test
@@ -122,7 +136,7 @@ public class EnterpriseServiceUnitTests {
 
         // Act & Assert
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
-            enterpriseService.update(nonExistingId, enterpriseDTO);
+            enterpriseService.update(nonExistingId, enterpriseDTO, null);
         });
 
         Mockito.verify(enterpriseRepository, Mockito.times(1)).getReferenceById(nonExistingId);
@@ -138,6 +152,16 @@ public class EnterpriseServiceUnitTests {
             enterpriseService.delete(existingId);
         });
 
-        Mockito.verify(enterpriseRepository, Mockito.times(1)).deleteById(existingId);
+        Mockito.verify(enterpriseRepository, Mockito.times(1)).bulkDeleteByIds(List.of(existingId));
+        Mockito.verify(textIndex, Mockito.times(1)).removeAll(TextIndex.ENTERPRISE, List.of(existingId));
+    }
+
+    @Test
+    public void deleteShouldThrowResourceNotFoundExceptionWhenNoRowIsDeleted() {
+
+        // Act & Assert
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            enterpriseService.delete(nonExistingId);
+        });
     }
 }
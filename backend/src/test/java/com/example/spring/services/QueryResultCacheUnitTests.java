@@ -0,0 +1,110 @@
+package com.example.spring.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryResultCacheUnitTests {
+
+    private MeterRegistry meterRegistry;
+    private QueryResultCache queryResultCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryResultCache = new QueryResultCache(meterRegistry, 2);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void getShouldLoadOnceWhenPageIsRequestedAgain() {
+
+        // Act
+        String first = load(QueryResultCache.DEPARTMENTS, 0L);
+        String second = load(QueryResultCache.DEPARTMENTS, 0L);
+
+        // Assert
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "list-departments").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void getShouldLoadAgainWhenTableIsInvalidated() {
+
+        // Arrange
+        load(QueryResultCache.DEPARTMENTS, 0L);
+
+        // Act
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
+        load(QueryResultCache.DEPARTMENTS, 0L);
+
+        // Assert
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateShouldNotAffectOtherTables() {
+
+        // Arrange
+        load(QueryResultCache.EMPLOYEES, 0L);
+
+        // Act
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
+        load(QueryResultCache.EMPLOYEES, 0L);
+
+        // Assert
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void invalidateShouldRetirePagesLoadedWhileTransactionWasOpen() {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        queryResultCache.invalidate(QueryResultCache.DEPARTMENTS);
+        // a concurrent reader caches the rows it saw before the write committed
+        load(QueryResultCache.DEPARTMENTS, 0L);
+
+        // Act
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        load(QueryResultCache.DEPARTMENTS, 0L);
+
+        // Assert
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void getShouldKeepAtMostMaxPagesPerTable() {
+
+        // Act
+        for (long after = 0; after < 10; after++) {
+            load(QueryResultCache.ENTERPRISES, after);
+        }
+
+        // Assert
+        Assertions.assertEquals(10, loads.get());
+        Assertions.assertTrue(queryResultCache.size(QueryResultCache.ENTERPRISES) <= 2);
+    }
+
+    private String load(String table, Long after) {
+        return queryResultCache.get(table, "findAll", List.of(after, 20), () -> table + "-" + after + "-" + loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.AgeBandDTO;
+import com.example.spring.dto.HeadcountDTO;
+import com.example.spring.models.Department;
+import com.example.spring.models.Employee;
+import com.example.spring.models.Enterprise;
+import com.example.spring.repositories.DepartmentRepository;
+import com.example.spring.repositories.EmployeeRepository;
+import com.example.spring.repositories.EnterpriseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class ReportServiceIntegrationTests {
+
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Department it = departmentRepository.findById(1L).get();
+        Department compliance = departmentRepository.findById(2L).get();
+        List<Employee> employees = employeeRepository.findAllById(List.of(1L, 2L, 3L));
+        it.getEmployees().addAll(employees.subList(0, 2));
+        compliance.getEmployees().addAll(employees.subList(1, 3));
+        Enterprise kojima = enterpriseRepository.findById(1L).get();
+        kojima.getDepartments().add(it);
+        kojima.getDepartments().add(compliance);
+        employeeRepository.saveAll(List.of(
+                new Employee(null, "John", "Crud", 33, "Backend Developer", "john.crud@spring.com"),
+                new Employee(null, "Jane", "Crud", 38, "Backend Developer", "jane.crud@spring.com"),
+                new Employee(null, "Jack", "Crud", 41, "Director", "jack.crud@spring.com")));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void headcountByEnterpriseShouldCountDistinctEmployeesInOneStatement() {
+
+        // Act
+        List<HeadcountDTO> result = reportService.headcount(HeadcountGrouping.ENTERPRISE);
+
+        // Assert
+        Assertions.assertEquals(List.of(1L, 2L, 3L), result.stream().map(HeadcountDTO::getId).toList());
+        Assertions.assertEquals(List.of(3L, 0L, 0L), result.stream().map(HeadcountDTO::getHeadcount).toList());
+        Assertions.assertEquals("Kojima Productions Co.", result.get(0).getName());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void headcountByDepartmentShouldIncludeEmptyDepartments() {
+
+        // Act
+        List<HeadcountDTO> result = reportService.headcount(HeadcountGrouping.DEPARTMENT);
+
+        // Assert
+        Assertions.assertEquals(List.of(2L, 2L, 0L), result.stream().map(HeadcountDTO::getHeadcount).toList());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void headcountByPositionShouldGroupEveryEmployee() {
+
+        // Act
+        List<HeadcountDTO> result = reportService.headcount(HeadcountGrouping.POSITION);
+
+        // Assert
+        Assertions.assertEquals(List.of("Backend Developer", "Director", "Product Manager"),
+                result.stream().map(HeadcountDTO::getName).toList());
+        Assertions.assertEquals(List.of(3L, 2L, 1L), result.stream().map(HeadcountDTO::getHeadcount).toList());
+        Assertions.assertTrue(result.stream().allMatch(row -> row.getId() == null));
+    }
+
+    @Test
+    public void ageBandsShouldFoldAgesIntoBandsAndReportUnknownAgesLast() {
+
+        // Act
+        List<AgeBandDTO> result = reportService.ageBands(10);
+
+        // Assert
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(30, result.get(0).getMinAge());
+        Assertions.assertEquals(39, result.get(0).getMaxAge());
+        Assertions.assertEquals(2L, result.get(0).getHeadcount());
+        Assertions.assertEquals(40, result.get(1).getMinAge());
+        Assertions.assertEquals(1L, result.get(1).getHeadcount());
+        Assertions.assertNull(result.get(2).getMinAge());
+        Assertions.assertEquals(3L, result.get(2).getHeadcount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
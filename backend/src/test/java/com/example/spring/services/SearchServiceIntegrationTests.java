@@ -0,0 +1,115 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.EnterpriseDTO;
+import com.example.spring.dto.SearchHitDTO;
+import com.example.spring.factories.EnterpriseFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// not @Transactional: the index is only updated once a write commits
+@SpringBootTest
+public class SearchServiceIntegrationTests {
+
+    @Autowired
+    private SearchService searchService;
+    @Autowired
+    private EnterpriseService enterpriseService;
+    @Autowired
+    private TextIndex textIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private EnterpriseDTO enterpriseDTO;
+    private Long insertedId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        enterpriseDTO = EnterpriseFactory.createEnterpriseDTO();
+        enterpriseDTO.setName("Aperture Science");
+        enterpriseDTO.setAddress("Upper Michigan, Cleveland");
+        enterpriseDTO.getDepartments().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (insertedId != null) {
+            enterpriseService.deleteAll(List.of(insertedId));
+        }
+    }
+
+    @Test
+    public void rebuildShouldIndexEveryDepartmentAndEnterprise() {
+
+        // Act
+        searchService.rebuild();
+        List<SearchHitDTO> result = searchService.search("valve", null);
+
+        // Assert
+        Assertions.assertEquals(6, textIndex.size());
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(TextIndex.ENTERPRISE, result.get(0).getType());
+        Assertions.assertEquals(2L, result.get(0).getId());
+    }
+
+    @Test
+    public void insertShouldBeSearchableAfterCommit() {
+
+        // Act
+        insertedId = enterpriseService.insert(enterpriseDTO).getId();
+        List<SearchHitDTO> result = searchService.search("cleveland", null);
+
+        // Assert
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(insertedId, result.get(0).getId());
+        Assertions.assertEquals("Aperture Science", result.get(0).getName());
+    }
+
+    @Test
+    public void insertShouldNotBeSearchableWhenTransactionRollsBack() {
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            enterpriseService.insert(enterpriseDTO);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        Assertions.assertTrue(searchService.search("cleveland", null).isEmpty());
+    }
+
+    @Test
+    public void patchShouldReplaceIndexedTerms() throws Exception {
+
+        // Arrange
+        insertedId = enterpriseService.insert(enterpriseDTO).getId();
+
+        // Act
+        enterpriseService.patch(insertedId, objectMapper.readTree("{\"address\":\"Black Mesa, New Mexico\"}"), null);
+
+        // Assert
+        Assertions.assertTrue(searchService.search("cleveland", null).isEmpty());
+        Assertions.assertEquals(insertedId, searchService.search("mesa", null).get(0).getId());
+    }
+
+    @Test
+    public void deleteShouldRemoveDocumentFromIndex() {
+
+        // Arrange
+        Long id = enterpriseService.insert(enterpriseDTO).getId();
+
+        // Act
+        enterpriseService.delete(id);
+
+        // Assert
+        Assertions.assertTrue(searchService.search("cleveland", null).isEmpty());
+    }
+}
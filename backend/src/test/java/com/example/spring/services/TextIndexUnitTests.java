@@ -0,0 +1,109 @@
+package com.example.spring.services;
+
+import com.example.spring.dto.SearchHitDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TextIndexUnitTests {
+
+    private TextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        textIndex = new TextIndex();
+        textIndex.replaceAll(List.of(
+                TextIndex.document(TextIndex.DEPARTMENT, 1L, "Payroll", "Runs payroll and employee benefits."),
+                TextIndex.document(TextIndex.DEPARTMENT, 2L, "Finance", "Budgets, invoices and payroll audits."),
+                TextIndex.document(TextIndex.DEPARTMENT, 3L, "Legal", "Contracts and compliance."),
+                TextIndex.document(TextIndex.ENTERPRISE, 1L, "Café Société", "Rue de Rivoli, Paris")));
+    }
+
+    @Test
+    public void searchShouldRankNameMatchesAboveBodyMatches() {
+
+        // Act
+        List<SearchHitDTO> result = textIndex.search("payroll", 10);
+
+        // Assert
+        Assertions.assertEquals(List.of(1L, 2L), result.stream().map(SearchHitDTO::getId).toList());
+        Assertions.assertTrue(result.get(0).getScore() > result.get(1).getScore());
+    }
+
+    @Test
+    public void searchShouldScoreRareTermsHigherThanCommonTerms() {
+
+        // Act
+        List<SearchHitDTO> result = textIndex.search("and contracts", 10);
+
+        // Assert
+        Assertions.assertEquals(3L, result.get(0).getId());
+        Assertions.assertEquals(3, result.size());
+    }
+
+    @Test
+    public void searchShouldIgnoreCaseAndDiacritics() {
+
+        // Act
+        List<SearchHitDTO> result = textIndex.search("CAFE societe", 10);
+
+        // Assert
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(TextIndex.ENTERPRISE, result.get(0).getType());
+        Assertions.assertEquals("Café Société", result.get(0).getName());
+    }
+
+    @Test
+    public void searchShouldReturnAtMostLimitHits() {
+
+        // Act
+        List<SearchHitDTO> result = textIndex.search("and", 2);
+
+        // Assert
+        Assertions.assertEquals(2, result.size());
+    }
+
+    @Test
+    public void searchShouldOrderEqualScoresByIdAndThenType() {
+
+        // Arrange
+        textIndex.put(TextIndex.document(TextIndex.ENTERPRISE, 4L, "Atlas", "Maps."));
+        textIndex.put(TextIndex.document(TextIndex.DEPARTMENT, 4L, "Atlas", "Maps."));
+
+        // Act
+        List<SearchHitDTO> first = textIndex.search("atlas", 1);
+        List<SearchHitDTO> result = textIndex.search("atlas", 2);
+
+        // Assert
+        Assertions.assertEquals(TextIndex.DEPARTMENT, first.get(0).getType());
+        Assertions.assertEquals(List.of(TextIndex.DEPARTMENT, TextIndex.ENTERPRISE),
+                result.stream().map(SearchHitDTO::getType).toList());
+        Assertions.assertEquals(result.get(0).getScore(), result.get(1).getScore());
+    }
+
+    @Test
+    public void putShouldReplacePreviousTermsOfTheDocument() {
+
+        // Act
+        textIndex.put(TextIndex.document(TextIndex.DEPARTMENT, 3L, "Legal", "Trademarks."));
+
+        // Assert
+        Assertions.assertTrue(textIndex.search("contracts", 10).isEmpty());
+        Assertions.assertEquals(3L, textIndex.search("trademarks", 10).get(0).getId());
+        Assertions.assertEquals(4, textIndex.size());
+    }
+
+    @Test
+    public void removeAllShouldOnlyRemoveDocumentsOfTheGivenType() {
+
+        // Act
+        textIndex.removeAll(TextIndex.DEPARTMENT, List.of(1L));
+
+        // Assert
+        Assertions.assertEquals(List.of(2L), textIndex.search("payroll", 10).stream().map(SearchHitDTO::getId).toList());
+        Assertions.assertEquals(1, textIndex.search("paris", 10).size());
+        Assertions.assertEquals(3, textIndex.size());
+    }
+}